@@ -0,0 +1,23 @@
+#!/usr/bin/env bash
+# Tạo bản jar đã giải nén + CDS/AppCDS archive bằng 1 lần chạy huấn luyện.
+# Lần chạy huấn luyện khởi tạo toàn bộ context rồi thoát (spring.context.exit=onRefresh),
+# nên cần cùng biến môi trường (DB, OPENAI...) như khi chạy thật.
+#
+#   ./mvnw clean package -DskipTests -Paot && scripts/cds-train.sh
+set -euo pipefail
+
+JAR=$(ls target/*.jar | grep -v original | head -n 1)
+OUT=target/app
+
+rm -rf "$OUT"
+java -Djarmode=tools -jar "$JAR" extract --destination "$OUT"
+
+APP_JAR="$OUT/$(basename "$JAR")"
+java -XX:ArchiveClassesAtExit="$OUT/app.jsa" \
+     -Dspring.context.exit=onRefresh \
+     -Dspring.profiles.active=fast \
+     -Dspring.aot.enabled=true \
+     -Dstartup.warmup.enabled=false \
+     -jar "$APP_JAR"
+
+echo "CDS archive: $OUT/app.jsa"
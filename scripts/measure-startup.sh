@@ -0,0 +1,26 @@
+#!/usr/bin/env bash
+# Đo time-to-first-request và RSS của 1 lệnh khởi động.
+#   scripts/measure-startup.sh "java -jar target/demo-0.0.1-SNAPSHOT.jar"   # trước
+#   scripts/measure-startup.sh scripts/start.sh                              # sau
+set -uo pipefail
+
+CMD=${1:?"Cần lệnh khởi động"}
+URL=${2:-http://localhost:8080/api/slides/themes}
+
+START=$(date +%s%N)
+bash -c "exec $CMD" > /tmp/measure-startup.log 2>&1 &
+PID=$!
+
+until curl -sf -o /dev/null "$URL"; do
+  if ! kill -0 "$PID" 2>/dev/null; then
+    echo "App đã thoát, xem /tmp/measure-startup.log"; exit 1
+  fi
+  sleep 0.05
+done
+END=$(date +%s%N)
+
+RSS_KB=$(awk '/VmRSS/ {print $2}' /proc/$PID/status)
+echo "time-to-first-request: $(( (END - START) / 1000000 )) ms"
+echo "RSS sau request đầu:   $(( RSS_KB / 1024 )) MB"
+
+kill "$PID"; wait "$PID" 2>/dev/null
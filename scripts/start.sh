@@ -0,0 +1,18 @@
+#!/usr/bin/env bash
+# Khởi động: dùng jar đã giải nén + CDS archive + AOT nếu có (scripts/cds-train.sh), ngược lại chạy jar thường.
+set -euo pipefail
+
+JAVA_OPTS="${JAVA_OPTS:--XX:+UseSerialGC -XX:MaxRAMPercentage=75 -Xss512k}"
+APP=target/app
+
+# qpdf cho PdfOptimizer (linearize): chỉ có khi host cài sẵn; Render native runtime không có → để rỗng, bước đó tắt
+export QPDF_PATH="${QPDF_PATH:-$(command -v qpdf || true)}"
+
+if [ -f "$APP/app.jsa" ]; then
+  exec java $JAVA_OPTS -XX:SharedArchiveFile="$APP/app.jsa" -Xshare:auto \
+       -Dspring.profiles.active="${SPRING_PROFILES_ACTIVE:-fast}" -Dspring.aot.enabled=true \
+       -jar "$(ls $APP/*.jar | head -n 1)"
+fi
+
+exec java $JAVA_OPTS -Dspring.profiles.active="${SPRING_PROFILES_ACTIVE:-fast}" \
+     -jar "$(ls target/*.jar | grep -v original | head -n 1)"
@@ -0,0 +1,106 @@
+// src/main/java/com/bkap/aislide/api/AdminApi.java
+package com.bkap.aislide.api;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.bkap.aislide.dto.ApiResponse;
+import com.bkap.aislide.profiling.ProfilingService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Endpoint vận hành, yêu cầu header X-Admin-Key = admin.api-key.
+ * admin.api-key để trống → tắt toàn bộ (403).
+ */
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminApi {
+
+    @Value("${admin.api-key:}")
+    private String adminKey;
+
+    private final ProfilingService profiling;
+
+    @PostMapping("/profiling/start")
+    public ResponseEntity<ApiResponse<ProfilingService.Status>> start(
+            @RequestHeader(value = "X-Admin-Key", required = false) String key,
+            @RequestParam(defaultValue = "60") long seconds,
+            @RequestParam(defaultValue = "default") String settings) {
+        if (!authorized(key)) return forbidden();
+        if (!settings.equals("default") && !settings.equals("profile")) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("settings phải là default hoặc profile"));
+        }
+        try {
+            return ResponseEntity.ok(ApiResponse.success(profiling.start(seconds, settings)));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/profiling")
+    public ResponseEntity<ApiResponse<ProfilingService.Status>> status(
+            @RequestHeader(value = "X-Admin-Key", required = false) String key) {
+        if (!authorized(key)) return forbidden();
+        return ResponseEntity.ok(ApiResponse.success(profiling.status()));
+    }
+
+    /** Dừng (nếu còn chạy) và tải file .jfr về. */
+    @PostMapping("/profiling/stop")
+    public ResponseEntity<Resource> stop(@RequestHeader(value = "X-Admin-Key", required = false) String key) {
+        if (!authorized(key)) return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        return profiling.stop()
+                .map(AdminApi::download)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/profiling/summary")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> summary(
+            @RequestHeader(value = "X-Admin-Key", required = false) String key,
+            @RequestParam(defaultValue = "10") int top) {
+        if (!authorized(key)) return forbidden();
+        try {
+            return profiling.summarizeLast(top)
+                    .map(s -> ResponseEntity.ok(ApiResponse.success(s)))
+                    .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error("Chưa có recording đã dừng để tóm tắt")));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    private static ResponseEntity<Resource> download(Path file) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getFileName() + "\"")
+                .body(new FileSystemResource(file));
+    }
+
+    private boolean authorized(String key) {
+        return !adminKey.isBlank() && key != null
+            && MessageDigest.isEqual(adminKey.getBytes(StandardCharsets.UTF_8), key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static <T> ResponseEntity<ApiResponse<T>> forbidden() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(ApiResponse.error("Không có quyền"));
+    }
+}
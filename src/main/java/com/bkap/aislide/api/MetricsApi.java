@@ -0,0 +1,44 @@
+// src/main/java/com/bkap/aislide/api/MetricsApi.java
+package com.bkap.aislide.api;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.bkap.aislide.dto.ApiResponse;
+import com.bkap.aislide.export.PdfOptimizer;
+import com.bkap.aislide.llm.LlmClient;
+import com.bkap.aislide.outline.OutlineEngine;
+import com.bkap.aislide.pregen.PreGenerator;
+import com.bkap.aislide.similarity.ContentReuse;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/metrics")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class MetricsApi {
+
+    private final LlmClient llm;
+    private final OutlineEngine outlineEngine;
+    private final PdfOptimizer pdfOptimizer;
+    private final ContentReuse reuse;
+    private final PreGenerator preGenerator;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<Map<String, Object>>> metrics() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("llm", llm.stats());
+        m.put("outline", outlineEngine.stats());
+        m.put("pdf", pdfOptimizer.stats());
+        m.put("reuse", reuse.stats());
+        m.put("pregen", preGenerator.stats());
+        return ResponseEntity.ok(ApiResponse.success(m));
+    }
+}
@@ -2,54 +2,219 @@
 package com.bkap.aislide.api;
 
 import java.io.IOException;
-import java.nio.file.Paths;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.server.ResponseStatusException;
 
 import com.bkap.aislide.dto.ApiResponse;
+import com.bkap.aislide.dto.BatchProgress;
+import com.bkap.aislide.dto.BulkGenerateRequest;
 import com.bkap.aislide.dto.GenerateRequest;
+import com.bkap.aislide.dto.HistoryPage;
+import com.bkap.aislide.dto.QueueTicket;
+import com.bkap.aislide.dto.SlideContent;
 import com.bkap.aislide.entity.SlideGeneration;
+import com.bkap.aislide.export.ExportFormat;
+import com.bkap.aislide.pregen.ReadyDeckPool;
+import com.bkap.aislide.preview.PreviewService;
+import com.bkap.aislide.quota.ClientQuotas;
 import com.bkap.aislide.repository.SlideRepository;
-import com.bkap.aislide.service.SlideGenerationTask;
+import com.bkap.aislide.service.BulkGenerationService;
+import com.bkap.aislide.service.FileStorageService;
+import com.bkap.aislide.service.GenerationScheduler;
+import com.bkap.aislide.service.SlideHistoryService;
+import com.bkap.aislide.template.SlideTemplateEngine;
 
-import lombok.RequiredArgsConstructor;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("/api/slides")
-@RequiredArgsConstructor
 @CrossOrigin(origins = "*")
 public class SlideApi {
 
+    private static final long ZIP_TIMEOUT_GRACE_MS = 30_000;
+
+    @Value("${bulk.zip-timeout-ms:1800000}")
+    private long zipTimeoutMs;
+
     private final SlideRepository repo;
-    private final SlideGenerationTask taskService;
+    private final GenerationScheduler scheduler;
+    private final ReadyDeckPool readyPool;
+    private final ClientQuotas quotas;
+    private final FileStorageService storage;
+    private final BulkGenerationService bulkService;
+    private final SlideHistoryService historyService;
+    private final SlideTemplateEngine templates;
+    private final PreviewService previews;
+    private final AsyncTaskExecutor zipExecutor;
+
+    public SlideApi(SlideRepository repo,
+                    GenerationScheduler scheduler,
+                    ReadyDeckPool readyPool,
+                    ClientQuotas quotas,
+                    FileStorageService storage,
+                    BulkGenerationService bulkService,
+                    SlideHistoryService historyService,
+                    SlideTemplateEngine templates,
+                    PreviewService previews,
+                    @Qualifier("zipExecutor") AsyncTaskExecutor zipExecutor) {
+        this.repo = repo;
+        this.scheduler = scheduler;
+        this.readyPool = readyPool;
+        this.quotas = quotas;
+        this.storage = storage;
+        this.bulkService = bulkService;
+        this.historyService = historyService;
+        this.templates = templates;
+        this.previews = previews;
+        this.zipExecutor = zipExecutor;
+    }
 
     @PostMapping("/generate")
-    public ResponseEntity<ApiResponse<SlideGeneration>> generate(@RequestBody GenerateRequest req) {
+    public ResponseEntity<ApiResponse<SlideGeneration>> generate(@Valid @RequestBody GenerateRequest req, HttpServletRequest http) {
+        ClientQuotas.ClientId client = quotas.identify(http);
+        ClientQuotas.Decision quota = quotas.tryAcquire(client, req.slideCount() == null ? 1 : req.slideCount());
+        if (!quota.allowed()) return tooManyRequests(quota);
+
         try {
             SlideGeneration slide = new SlideGeneration();
             slide.setTopic(req.topic());
             slide.setSlideCount(req.slideCount());
+            slide.setTheme(req.theme());
+            slide.setFormats(ExportFormat.toCsv(ExportFormat.parse(req.formats())));
+            slide.setDeadlineMs(req.targetLatencyMs());
             repo.save(slide);
 
-            taskService.generateAsync(slide.getTaskId());
+            // Có deck dựng sẵn khớp → chỉ render theo theme/định dạng yêu cầu, không gọi LLM
+            Optional<List<SlideContent>> ready = req.slideCount() == null ? Optional.empty()
+                : readyPool.take(req.topic(), req.slideCount(), slide.getTaskId());
+            QueueTicket ticket = ready.isPresent()
+                ? scheduler.submitReady(client.id(), client.weight(), slide, ready.get())
+                : scheduler.submit(client.id(), client.weight(), slide);
+            return ResponseEntity.ok(ApiResponse.success(slide, ticket));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/generate/bulk")
+    public ResponseEntity<ApiResponse<BatchProgress>> generateBulk(@Valid @RequestBody BulkGenerateRequest req, HttpServletRequest http) {
+        ClientQuotas.ClientId client = quotas.identify(http);
+        int weight = req.requests() == null ? 0 : req.requests().stream()
+            .mapToInt(r -> r.slideCount() == null ? 1 : r.slideCount())
+            .sum();
+        ClientQuotas.Decision quota = quotas.tryAcquire(client, Math.max(1, weight));
+        if (!quota.allowed()) return tooManyRequests(quota);
 
-            return ResponseEntity.ok(ApiResponse.success(slide));
+        try {
+            List<SlideGeneration> slides = bulkService.createBatch(req.requests());
+            String batchId = slides.get(0).getBatchId();
+            QueueTicket ticket = scheduler.submitBatch(client.id(), client.weight(), slides);
+
+            return ResponseEntity.ok(ApiResponse.success(BatchProgress.of(batchId, slides), ticket));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(ApiResponse.error(e.getMessage()));
         }
     }
 
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<ApiResponse<Void>> busy(TaskRejectedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .body(ApiResponse.error("Đang có quá nhiều lượt tải ZIP, vui lòng thử lại sau"));
+    }
+
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<ApiResponse<Void>> invalidRequest(MethodArgumentNotValidException e) {
+        String message = e.getBindingResult().getFieldErrors().stream()
+                .map(f -> f.getField() + ": " + f.getDefaultMessage())
+                .findFirst()
+                .orElse("Dữ liệu không hợp lệ");
+        return ResponseEntity.badRequest().body(ApiResponse.error(message));
+    }
+
+    private static <T> ResponseEntity<ApiResponse<T>> tooManyRequests(ClientQuotas.Decision quota) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, quota.retryAfterSeconds())))
+                .body(ApiResponse.error(quota.reason()));
+    }
+
+    @GetMapping("/batch/{batchId}")
+    public ResponseEntity<ApiResponse<BatchProgress>> getBatch(@PathVariable String batchId) {
+        List<SlideGeneration> items = repo.findBatch(batchId);
+        if (items.isEmpty()) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(ApiResponse.success(BatchProgress.of(batchId, items)));
+    }
+
+    @GetMapping("/batch/{batchId}/zip")
+    public WebAsyncTask<Void> downloadBatchZip(@PathVariable String batchId, HttpServletResponse response) {
+        if (repo.findBatch(batchId).isEmpty()) throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+
+        // ZIP được stream dần theo tiến độ batch → timeout async riêng cho endpoint này (dư 1 chút để
+        // streamZip tự đóng file ZIP khi hết bulk.zip-timeout-ms), các endpoint khác giữ mặc định.
+        // Chạy trên zipExecutor (giới hạn số luồng); header đặt trong callable để khi bị từ chối vẫn trả JSON 503
+        return new WebAsyncTask<>(zipTimeoutMs + ZIP_TIMEOUT_GRACE_MS, zipExecutor, () -> {
+            response.setContentType("application/zip");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + batchId + ".zip\"");
+            OutputStream out = response.getOutputStream();
+            bulkService.streamZip(batchId, out);
+            out.flush();
+            return null;
+        });
+    }
+
+    @GetMapping("/history")
+    public ResponseEntity<ApiResponse<HistoryPage>> history(@RequestParam(required = false) String status,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success(historyService.page(status, cursor, size)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/recent")
+    public ResponseEntity<ApiResponse<List<SlideGeneration>>> recent() {
+        return ResponseEntity.ok(ApiResponse.success(repo.findTop10ByOrderByCreatedAtDesc()));
+    }
+
+    @GetMapping("/themes")
+    public ResponseEntity<ApiResponse<Set<String>>> themes() {
+        return ResponseEntity.ok(ApiResponse.success(templates.themeNames()));
+    }
+
     @GetMapping("/{taskId}")
     public ResponseEntity<SlideGeneration> getStatus(@PathVariable String taskId) {
         return repo.findById(taskId)
@@ -57,9 +222,28 @@ public class SlideApi {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{taskId}/queue")
+    public ResponseEntity<ApiResponse<QueueTicket>> queuePosition(@PathVariable String taskId) {
+        return scheduler.ticket(taskId)
+                .map(t -> ResponseEntity.ok(ApiResponse.success(t)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{taskId}/preview")
+    public ResponseEntity<byte[]> preview(@PathVariable String taskId,
+                                          @RequestParam(defaultValue = "1") int page,
+                                          @RequestParam(required = false) Integer width) throws IOException {
+        return previews.get(taskId, page, width)
+                .map(png -> ResponseEntity.ok()
+                        .contentType(MediaType.IMAGE_PNG)
+                        .cacheControl(CacheControl.maxAge(Duration.ofDays(7)).cachePublic())
+                        .body(png))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/download/{filename}")
     public ResponseEntity<Resource> download(@PathVariable String filename) throws IOException {
-        var filePath = Paths.get("./uploads").resolve(filename).normalize();
+        var filePath = storage.resolve(filename);
         Resource resource = new UrlResource(filePath.toUri());
 
         if (!resource.exists() || !resource.isReadable()) {
@@ -67,7 +251,7 @@ public class SlideApi {
         }
 
         return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_PDF)
+                .contentType(MediaTypeFactory.getMediaType(resource).orElse(MediaType.APPLICATION_OCTET_STREAM))
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
                 .body(resource);
     }
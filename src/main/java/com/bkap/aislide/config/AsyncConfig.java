@@ -1,9 +1,15 @@
 package com.bkap.aislide.config;
 
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+@Configuration
+@EnableAsync
+@EnableScheduling
 public class AsyncConfig {
     @Bean(name = "taskExecutor")
     public TaskExecutor taskExecutor() {
@@ -15,4 +21,41 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    // Xuất file (PDF/PPTX/ảnh) song song từ cùng 1 mô hình slide
+    @Bean(name = "exportExecutor")
+    public TaskExecutor exportExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("Export-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Lời gọi LLM (kể cả bản hedge) chạy ở đây để có thể hủy bản thua
+    @Bean(name = "llmExecutor")
+    public ThreadPoolTaskExecutor llmExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("Llm-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Stream ZIP của batch: mỗi request giữ 1 thread tới hết batch (tối đa bulk.zip-timeout-ms),
+    // không hàng đợi → quá số luồng thì từ chối (503) thay vì dồn request chờ hàng chục phút
+    @Bean(name = "zipExecutor")
+    public ThreadPoolTaskExecutor zipExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("Zip-");
+        executor.initialize();
+        return executor;
+    }
 }
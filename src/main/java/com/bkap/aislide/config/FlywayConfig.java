@@ -0,0 +1,16 @@
+package com.bkap.aislide.config;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class FlywayConfig {
+
+    // DB đang chạy đã có bảng slides (do Hibernate tạo) nhưng chưa có lịch sử Flyway:
+    // baseline ở version 0 để V1 (viết idempotent) vẫn được chạy.
+    @Bean
+    public FlywayConfigurationCustomizer baselineExistingSchema() {
+        return configuration -> configuration.baselineOnMigrate(true).baselineVersion("0");
+    }
+}
@@ -0,0 +1,20 @@
+package com.bkap.aislide.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JpaBatchConfig {
+
+    // saveAll() của bulk API → gom INSERT thành JDBC batch (id gán sẵn ở @PrePersist nên batch được)
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchCustomizer(@Value("${jpa.batch-size:50}") int batchSize) {
+        return props -> {
+            props.put("hibernate.jdbc.batch_size", batchSize);
+            props.put("hibernate.order_inserts", true);
+            props.put("hibernate.order_updates", true);
+        };
+    }
+}
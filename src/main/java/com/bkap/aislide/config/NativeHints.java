@@ -0,0 +1,55 @@
+package com.bkap.aislide.config;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import com.bkap.aislide.dto.ApiResponse;
+import com.bkap.aislide.dto.BatchProgress;
+import com.bkap.aislide.dto.BulkGenerateRequest;
+import com.bkap.aislide.dto.GenerateRequest;
+import com.bkap.aislide.dto.HistoryPage;
+import com.bkap.aislide.dto.QueueTicket;
+import com.bkap.aislide.dto.SlideContent;
+import com.bkap.aislide.dto.SlideItem;
+import com.bkap.aislide.dto.SlideSummary;
+import com.bkap.aislide.dto.TopicDemand;
+import com.bkap.aislide.entity.SlideGeneration;
+import com.bkap.aislide.profiling.ProfilingService;
+
+/** Hint cho Spring AOT / GraalVM native image: resource nạp động + kiểu (de)serialize bằng Jackson. */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.resources()
+            .registerPattern("fonts/*.ttf")
+            .registerPattern("slide-themes/*/*.html")
+            .registerPattern("db/migration/*.sql")
+            // CSS/cấu hình mặc định của openhtmltopdf, bảng glyph/AFM của PDFBox
+            .registerPattern("resources/css/*")
+            .registerPattern("resources/conf/*")
+            .registerPattern("org/apache/pdfbox/resources/*")
+            .registerPattern("org/apache/pdfbox/resources/**/*")
+            .registerPattern("org/apache/fontbox/resources/**/*");
+
+        // Kiểu trả về/nhận của API + projection JPQL "select new ..." (Hibernate gọi constructor bằng reflection).
+        // Thêm DTO mới vào đây, native image không tự phát hiện.
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+            ApiResponse.class, BatchProgress.class, BulkGenerateRequest.class, GenerateRequest.class,
+            SlideContent.class, SlideItem.class, SlideGeneration.class,
+            HistoryPage.class, SlideSummary.class, TopicDemand.class, QueueTicket.class,
+            ProfilingService.Status.class);
+
+        // openhtmltopdf nạp các lớp này bằng Class.forName
+        for (String type : new String[] {
+                "com.openhtmltopdf.svgsupport.BatikSVGDrawer",
+                "com.openhtmltopdf.pdfboxout.PdfBoxFontResolver",
+                "org.apache.pdfbox.pdmodel.font.FileSystemFontProvider" }) {
+            hints.reflection().registerType(TypeReference.of(type),
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+    }
+}
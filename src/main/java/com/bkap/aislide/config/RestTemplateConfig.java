@@ -1,13 +1,25 @@
 package com.bkap.aislide.config;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 @Configuration
 public class RestTemplateConfig {
     // RestTemplateConfig.java
+    // JDK HttpClient: có timeout, và hủy được request khi thread bị interrupt (bản hedge thua)
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(@Value("${http.connect-timeout-ms:5000}") long connectTimeoutMs,
+                                     @Value("${http.read-timeout-ms:60000}") long readTimeoutMs) {
+        HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+            .build();
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(client);
+        factory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        return new RestTemplate(factory);
     }
 }
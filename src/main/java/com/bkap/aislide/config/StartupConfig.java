@@ -0,0 +1,79 @@
+package com.bkap.aislide.config;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.annotation.Schedules;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import com.bkap.aislide.dto.SlideContent;
+import com.bkap.aislide.export.PdfExporter;
+import com.bkap.aislide.template.SlideTemplateEngine;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Cấu hình khởi động nhanh (profile "fast" bật lazy-init, xem application-fast.properties):
+ *  - các bean nặng/cần cho request đầu vẫn khởi tạo sớm;
+ *  - bean có @Scheduled luôn khởi tạo sớm: bean lazy chưa ai inject thì lịch chạy không bao giờ được đăng ký;
+ *  - sau khi app sẵn sàng, render nền 1 deck nhỏ để nạp class + JIT đường PDF trước user đầu tiên.
+ */
+@Configuration
+@RequiredArgsConstructor
+@ImportRuntimeHints(NativeHints.class)
+public class StartupConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupConfig.class);
+
+    private final SlideTemplateEngine templates;
+    private final PdfExporter pdfExporter;
+
+    @Value("${startup.warmup.enabled:true}")
+    private boolean warmupEnabled;
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerStartupBeans() {
+        LazyInitializationExcludeFilter heavy = LazyInitializationExcludeFilter.forBeanTypes(SlideTemplateEngine.class, PdfExporter.class);
+        return (factory, name, definition, type) -> heavy.isExcluded(factory, name, definition, type) || hasScheduledMethods(type);
+    }
+
+    static boolean hasScheduledMethods(Class<?> type) {
+        if (type == null) return false;
+        return Arrays.stream(ReflectionUtils.getUniqueDeclaredMethods(ClassUtils.getUserClass(type)))
+            .anyMatch(m -> AnnotatedElementUtils.hasAnnotation(m, Scheduled.class)
+                || AnnotatedElementUtils.hasAnnotation(m, Schedules.class));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!warmupEnabled) return;
+        Thread t = new Thread(() -> {
+            long start = System.currentTimeMillis();
+            try {
+                List<SlideContent> slides = List.of(
+                    new SlideContent(0, "Khởi động", "TITLE", "<p>Làm nóng bộ render</p>", null, false),
+                    new SlideContent(1, "Danh sách", "BULLET", "<ul><li>Một</li><li>Hai</li></ul>", null, false));
+                for (String theme : templates.themeNames()) {
+                    pdfExporter.render(templates.render(theme, "warmup", slides));
+                }
+                log.info("Warm-up PDF xong sau {}ms", System.currentTimeMillis() - start);
+            } catch (Exception e) {
+                log.warn("Warm-up PDF lỗi: {}", e.getMessage());
+            }
+        }, "pdf-warmup");
+        t.setDaemon(true);
+        t.start();
+    }
+}
@@ -1,6 +1,8 @@
 // dto/ApiResponse.java
 package com.bkap.aislide.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.Builder;
 import lombok.Data;
 
@@ -11,6 +13,10 @@ public class ApiResponse<T> {
     private String message;
     private T data;
 
+    // Chỉ có khi job vào hàng đợi tạo slide
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private QueueTicket queue;
+
     public static <T> ApiResponse<T> success(T data) {
         return ApiResponse.<T>builder()
                 .success(true)
@@ -18,10 +24,18 @@ public class ApiResponse<T> {
                 .build();
     }
 
+    public static <T> ApiResponse<T> success(T data, QueueTicket queue) {
+        return ApiResponse.<T>builder()
+                .success(true)
+                .data(data)
+                .queue(queue)
+                .build();
+    }
+
     public static <T> ApiResponse<T> error(String message) {
         return ApiResponse.<T>builder()
                 .success(false)
                 .message(message)
                 .build();
     }
-}
\ No newline at end of file
+}
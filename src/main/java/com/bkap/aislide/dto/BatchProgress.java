@@ -0,0 +1,25 @@
+// dto/BatchProgress.java
+package com.bkap.aislide.dto;
+
+import java.util.List;
+
+import com.bkap.aislide.entity.SlideGeneration;
+
+public record BatchProgress(
+    String batchId,
+    int total,
+    int completed,
+    int failed,
+    int processing,
+    List<SlideGeneration> items
+) {
+    public static BatchProgress of(String batchId, List<SlideGeneration> items) {
+        int completed = 0, failed = 0;
+        for (SlideGeneration s : items) {
+            if ("completed".equals(s.getStatus())) completed++;
+            else if ("failed".equals(s.getStatus())) failed++;
+        }
+        return new BatchProgress(batchId, items.size(), completed, failed,
+            items.size() - completed - failed, items);
+    }
+}
@@ -0,0 +1,12 @@
+// dto/BulkGenerateRequest.java
+package com.bkap.aislide.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+public record BulkGenerateRequest(
+    @NotEmpty(message = "Danh sách chủ đề không được để trống")
+    List<@Valid GenerateRequest> requests
+) {}
@@ -1,6 +1,8 @@
 // dto/GenerateRequest.java
 package com.bkap.aislide.dto;
 
+import java.util.List;
+
 import jakarta.validation.constraints.*;
 
 public record GenerateRequest(
@@ -8,5 +10,15 @@ public record GenerateRequest(
     String topic,
 
     @Min(5) @Max(20)
-    Integer slideCount
+    Integer slideCount,
+
+    // Tên theme trong resources/slide-themes (null → theme mặc định)
+    String theme,
+
+    // Định dạng xuất thêm: "pptx", "png", "webp" (PDF luôn có)
+    List<String> formats,
+
+    // Ngân sách thời gian xử lý (ms); null → generation.default-deadline-ms
+    @Min(10000) @Max(600000)
+    Integer targetLatencyMs
 ) {}
\ No newline at end of file
@@ -0,0 +1,11 @@
+// dto/HistoryPage.java
+package com.bkap.aislide.dto;
+
+import java.util.List;
+
+/** 1 trang lịch sử; nextCursor = null khi hết (không cần COUNT). */
+public record HistoryPage(
+    List<SlideSummary> items,
+    String nextCursor,
+    boolean hasMore
+) {}
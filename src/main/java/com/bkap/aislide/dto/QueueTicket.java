@@ -0,0 +1,8 @@
+// dto/QueueTicket.java
+package com.bkap.aislide.dto;
+
+/** Vị trí trong hàng đợi tạo slide (1 = chạy kế tiếp) + thời gian chờ ước tính. */
+public record QueueTicket(
+    int position,
+    long estimatedWaitMs
+) {}
@@ -0,0 +1,16 @@
+// dto/SlideContent.java
+package com.bkap.aislide.dto;
+
+/**
+ * Mô hình trung gian của 1 slide sau các bước LLM (outline → nội dung → ảnh).
+ * Mọi định dạng xuất (PDF, ...) đều render từ mô hình này.
+ */
+public record SlideContent(
+    int index,
+    String title,
+    String type,
+    String contentHtml,
+    String imageUrl,
+    // true = bước nào đó hết ngân sách thời gian → nội dung rút gọn / bỏ ảnh
+    boolean degraded
+) {}
@@ -0,0 +1,15 @@
+// dto/SlideSummary.java
+package com.bkap.aislide.dto;
+
+import java.time.LocalDateTime;
+
+/** Projection cho danh sách lịch sử: bỏ các cột nặng (errorMessage, exports). */
+public record SlideSummary(
+    String taskId,
+    String topic,
+    Integer slideCount,
+    String status,
+    String fileUrl,
+    LocalDateTime createdAt,
+    LocalDateTime completedAt
+) {}
@@ -0,0 +1,9 @@
+// dto/TopicDemand.java
+package com.bkap.aislide.dto;
+
+/** Số lần 1 cặp (chủ đề, số slide) được yêu cầu trong cửa sổ thời gian. */
+public record TopicDemand(
+    String topic,
+    Integer slideCount,
+    Long requests
+) {}
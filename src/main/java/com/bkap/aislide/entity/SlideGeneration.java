@@ -2,10 +2,13 @@
 package com.bkap.aislide.entity;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.hibernate.annotations.CreationTimestamp;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
@@ -25,11 +28,33 @@ public class SlideGeneration {
     private String topic;
     private Integer slideCount;
 
+    private String theme;
+
+    // Thuộc batch nào (bulk API); null với request lẻ
+    private String batchId;
+
+    // Vị trí trong batch theo thứ tự gửi (0, 1, ...); saveAll cho cùng created_at nên không dùng được để sắp xếp
+    private Integer batchIndex;
+
     @Column(nullable = false)
     private String status = "processing";
 
     private String fileUrl;
 
+    // Định dạng yêu cầu, vd "pdf,pptx,png"
+    private String formats;
+
+    // Định dạng → URL download (pdf, pptx, png-1, ...)
+    @Convert(converter = StringMapConverter.class)
+    @Column(columnDefinition = "TEXT")
+    private Map<String, String> exports = new LinkedHashMap<>();
+
+    // Ngân sách thời gian xử lý (ms); null → mặc định server
+    private Integer deadlineMs;
+
+    // Các slide bị rút gọn do hết ngân sách, vd "4,6" (đánh số từ 1)
+    private String degradedSlides;
+
     @Column(columnDefinition = "TEXT")
     private String errorMessage;
 
@@ -0,0 +1,38 @@
+// src/main/java/com/bkap/aislide/entity/StringMapConverter.java
+package com.bkap.aislide.entity;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/** Map&lt;String, String&gt; ↔ JSON trong cột TEXT (chạy được trên mọi DB). */
+@Converter
+public class StringMapConverter implements AttributeConverter<Map<String, String>, String> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Override
+    public String convertToDatabaseColumn(Map<String, String> attribute) {
+        if (attribute == null || attribute.isEmpty()) return null;
+        try {
+            return MAPPER.writeValueAsString(attribute);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Không ghi được JSON", e);
+        }
+    }
+
+    @Override
+    public Map<String, String> convertToEntityAttribute(String dbData) {
+        if (dbData == null || dbData.isBlank()) return new LinkedHashMap<>();
+        try {
+            return MAPPER.readValue(dbData, new TypeReference<LinkedHashMap<String, String>>() {});
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Không đọc được JSON", e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+// src/main/java/com/bkap/aislide/export/ExportFormat.java
+package com.bkap.aislide.export;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/** Các định dạng xuất. PDF luôn được tạo (download, preview, thumbnail đều dựa vào PDF). */
+public enum ExportFormat {
+    PDF("pdf"),
+    PPTX("pptx"),
+    PNG("png"),
+    WEBP("webp");
+
+    private final String ext;
+
+    ExportFormat(String ext) {
+        this.ext = ext;
+    }
+
+    public String ext() {
+        return ext;
+    }
+
+    public boolean isThumbnail() {
+        return this == PNG || this == WEBP;
+    }
+
+    /** "pdf,pptx,png" hoặc danh sách → EnumSet; giá trị lạ bị bỏ qua. */
+    public static Set<ExportFormat> parse(Collection<String> values) {
+        Set<ExportFormat> result = EnumSet.of(PDF);
+        if (values == null) return result;
+        for (String v : values) {
+            if (v == null) continue;
+            for (ExportFormat f : values()) {
+                if (f.ext.equalsIgnoreCase(v.trim())) result.add(f);
+            }
+        }
+        return result;
+    }
+
+    public static Set<ExportFormat> parse(String csv) {
+        return csv == null || csv.isBlank() ? EnumSet.of(PDF) : parse(List.of(csv.split(",")));
+    }
+
+    public static String toCsv(Set<ExportFormat> formats) {
+        return String.join(",", formats.stream().map(ExportFormat::ext).toList());
+    }
+}
@@ -0,0 +1,194 @@
+// src/main/java/com/bkap/aislide/export/ExportService.java
+package com.bkap.aislide.export;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.bkap.aislide.dto.SlideContent;
+import com.bkap.aislide.profiling.TaskContext;
+import com.bkap.aislide.service.FileStorageService;
+import com.bkap.aislide.template.SlideTemplateEngine;
+import com.bkap.aislide.util.Deadline;
+
+/**
+ * Pipeline xuất dùng chung: từ 1 mô hình slide sinh PDF (đã qua PdfOptimizer) và PPTX song song,
+ * thumbnail raster từ PDF ngay khi PDF xong. Không gọi lại LLM.
+ * Toàn bộ bị giới hạn bởi {@code timeoutMs} (phần còn lại của ngân sách deck); quá hạn thì giảm cấp thay vì chờ:
+ *  - ảnh chỉ được export.image-budget-fraction ngân sách, ảnh không kịp tải → slide không ảnh (rút gọn);
+ *  - PDF chưa xong → hủy, render lại không ảnh (tối đa export.fallback-timeout-ms);
+ *  - PPTX / thumbnail chưa xong → hủy, deck chỉ có các định dạng đã xong.
+ * Mỗi bước là 1 FutureTask chạy trên exportExecutor để cancel(true) ngắt được thread; bước bị hủy không ghi file.
+ */
+@Service
+public class ExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportService.class);
+
+    @Value("${export.image-budget-fraction:0.4}")
+    private double imageBudgetFraction;
+
+    @Value("${export.fallback-timeout-ms:10000}")
+    private long fallbackTimeoutMs;
+
+    private final SlideTemplateEngine templates;
+    private final PdfExporter pdfExporter;
+    private final PdfOptimizer pdfOptimizer;
+    private final PptxExporter pptxExporter;
+    private final ThumbnailExporter thumbnailExporter;
+    private final FileStorageService storage;
+    private final ImageFetcher imageFetcher;
+    private final Executor executor;
+
+    public ExportService(SlideTemplateEngine templates,
+                         PdfExporter pdfExporter,
+                         PdfOptimizer pdfOptimizer,
+                         PptxExporter pptxExporter,
+                         ThumbnailExporter thumbnailExporter,
+                         FileStorageService storage,
+                         ImageFetcher imageFetcher,
+                         @Qualifier("exportExecutor") Executor executor) {
+        this.templates = templates;
+        this.pdfExporter = pdfExporter;
+        this.pdfOptimizer = pdfOptimizer;
+        this.pptxExporter = pptxExporter;
+        this.thumbnailExporter = thumbnailExporter;
+        this.storage = storage;
+        this.imageFetcher = imageFetcher;
+        this.executor = executor;
+    }
+
+    /**
+     * @param files định dạng → URL download ("pdf", "pptx", "png-1", "png-2", ...)
+     * @param slides mô hình slide thực sự đã xuất: slide mất ảnh được đánh dấu degraded
+     */
+    public record ExportResult(String pdfUrl, Map<String, String> files, List<SlideContent> slides) {}
+
+    /** @throws TimeoutException chỉ khi cả bản PDF không ảnh cũng không xong trong export.fallback-timeout-ms */
+    public ExportResult export(String taskId, String theme, String docTitle,
+                               List<SlideContent> slides, Set<ExportFormat> formats, long timeoutMs) throws Exception {
+        Deadline deadline = Deadline.afterMillis(Math.max(1, timeoutMs));
+
+        // Tải mỗi ảnh 1 lần, PDF và PPTX dùng chung
+        Map<String, byte[]> images = imageFetcher.fetchAll(
+            slides.stream().map(SlideContent::imageUrl).toList(), deadline.sub(imageBudgetFraction));
+        List<SlideContent> exported = dropImages(slides, url -> !images.containsKey(url));
+
+        FutureTask<byte[]> pdfTask = submit(() -> renderPdf(theme, docTitle, exported, images));
+        FutureTask<String> pptxTask = formats.contains(ExportFormat.PPTX)
+            ? submit(() -> saveIfNotCancelled(taskId, pptxExporter.build(exported, images), "pptx"))
+            : null;
+
+        List<SlideContent> result = exported;
+        byte[] pdf;
+        try {
+            pdf = await(pdfTask, deadline.remainingMs());
+        } catch (TimeoutException e) {
+            pdfTask.cancel(true);
+            log.warn("PDF {} quá thời hạn {}ms → render lại không ảnh", taskId, timeoutMs);
+            result = dropImages(exported, url -> true);
+            List<SlideContent> noImages = result;
+            FutureTask<byte[]> fallback = submit(() -> renderPdf(theme, docTitle, noImages, Map.of()));
+            try {
+                pdf = await(fallback, fallbackTimeoutMs);
+            } catch (TimeoutException again) {
+                fallback.cancel(true);
+                if (pptxTask != null) pptxTask.cancel(true);
+                throw new TimeoutException("Xuất PDF quá thời hạn " + timeoutMs + "ms, cả bản không ảnh");
+            }
+        }
+        String pdfUrl = storage.save(taskId, pdf, "pdf");
+
+        ExportFormat thumbFormat = formats.contains(ExportFormat.WEBP) ? ExportFormat.WEBP
+            : formats.contains(ExportFormat.PNG) ? ExportFormat.PNG : null;
+        byte[] finalPdf = pdf;
+        FutureTask<Map<String, String>> thumbTask = thumbFormat == null ? null
+            : submit(() -> saveThumbnails(taskId, finalPdf, thumbFormat));
+
+        Map<String, String> files = new LinkedHashMap<>();
+        files.put(ExportFormat.PDF.ext(), pdfUrl);
+        // Định dạng phụ: không kịp thì bỏ, không làm hỏng deck
+        String pptxUrl = optional(taskId, "pptx", pptxTask, deadline);
+        if (pptxUrl != null) files.put(ExportFormat.PPTX.ext(), pptxUrl);
+        Map<String, String> thumbs = optional(taskId, "thumbnail", thumbTask, deadline);
+        if (thumbs != null) files.putAll(thumbs);
+
+        log.info("Xuất xong {} | định dạng: {}", taskId, files.keySet());
+        return new ExportResult(pdfUrl, files, result);
+    }
+
+    private byte[] renderPdf(String theme, String docTitle, List<SlideContent> slides, Map<String, byte[]> images) throws Exception {
+        return pdfOptimizer.optimize(pdfExporter.render(templates.render(theme, docTitle, slides), slides.size(), images)).bytes();
+    }
+
+    /** Slide có ảnh thỏa {@code drop} → bỏ ảnh, đánh dấu rút gọn. */
+    private static List<SlideContent> dropImages(List<SlideContent> slides, Predicate<String> drop) {
+        List<SlideContent> result = new ArrayList<>(slides.size());
+        for (SlideContent s : slides) {
+            boolean hasImage = s.imageUrl() != null && !s.imageUrl().isBlank();
+            result.add(hasImage && drop.test(s.imageUrl())
+                ? new SlideContent(s.index(), s.title(), s.type(), s.contentHtml(), null, true)
+                : s);
+        }
+        return result;
+    }
+
+    /** Kết quả định dạng phụ trong phần ngân sách còn lại; quá hạn / lỗi → hủy và trả null. */
+    private <T> T optional(String taskId, String what, FutureTask<T> task, Deadline deadline) {
+        if (task == null) return null;
+        try {
+            return await(task, deadline.remainingMs());
+        } catch (TimeoutException e) {
+            task.cancel(true);
+            log.warn("Bỏ {} của {}: quá thời hạn", what, taskId);
+        } catch (Exception e) {
+            log.warn("Bỏ {} của {}: {}", what, taskId, e.getMessage());
+        }
+        return null;
+    }
+
+    private Map<String, String> saveThumbnails(String taskId, byte[] pdf, ExportFormat format) throws Exception {
+        ThumbnailExporter.Thumbnails thumbs = thumbnailExporter.render(pdf, format);
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (int i = 0; i < thumbs.pages().size(); i++) {
+            String name = taskId + "-thumb-" + (i + 1);
+            urls.put(thumbs.ext() + "-" + (i + 1), saveIfNotCancelled(name, thumbs.pages().get(i), thumbs.ext()));
+        }
+        return urls;
+    }
+
+    /** Bước đã bị hủy (thread bị ngắt) không ghi file nữa. */
+    private String saveIfNotCancelled(String name, byte[] data, String ext) throws Exception {
+        if (Thread.currentThread().isInterrupted()) throw new InterruptedException("xuất " + ext + " đã bị hủy");
+        return storage.save(name, data, ext);
+    }
+
+    private <T> FutureTask<T> submit(Callable<T> c) {
+        FutureTask<T> task = new FutureTask<>(TaskContext.wrap(c));
+        executor.execute(task);
+        return task;
+    }
+
+    private static <T> T await(FutureTask<T> task, long timeoutMs) throws Exception {
+        try {
+            return task.get(Math.max(1, timeoutMs), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ex ? ex : e;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+// src/main/java/com/bkap/aislide/export/ImageFetcher.java
+package com.bkap.aislide.export;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.bkap.aislide.profiling.ImageResolveEvent;
+import com.bkap.aislide.profiling.TaskContext;
+import com.bkap.aislide.util.Deadline;
+
+/**
+ * Tải ảnh từ xa cho PDF/PPTX với thời hạn cứng: quá connect/read timeout, quá tổng thời gian
+ * hoặc quá dung lượng → trả null và slide xuất không có ảnh, thay vì treo cả deck khi host ảnh chậm.
+ * Mỗi URL chỉ tải 1 lần cho cả deck ({@link #fetchAll}); PDF và PPTX dùng chung bytes, nên URL
+ * ngẫu nhiên (/random/) cho cùng 1 ảnh ở mọi định dạng. Các ảnh tải nối tiếp nhau nên dùng chung
+ * 1 ngân sách: mỗi ảnh chỉ được phần còn lại của ngân sách (tối đa connect + read timeout).
+ */
+@Component
+public class ImageFetcher {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageFetcher.class);
+
+    // Ngân sách còn dưới mức này → bỏ các ảnh còn lại, không mở kết nối chắc chắn timeout
+    private static final long MIN_FETCH_MS = 200;
+
+    @Value("${export.image.connect-timeout-ms:3000}")
+    private int connectTimeoutMs;
+
+    // Tổng thời gian đọc 1 ảnh (mỗi lần read cũng bị giới hạn bằng giá trị này)
+    @Value("${export.image.read-timeout-ms:5000}")
+    private int readTimeoutMs;
+
+    @Value("${export.image.max-bytes:8388608}")
+    private int maxBytes;
+
+    /** URL (bỏ null/trùng) → bytes trong {@code budget}; URL tải lỗi / không kịp tải không có trong map. */
+    public Map<String, byte[]> fetchAll(Collection<String> urls, Deadline budget) {
+        Map<String, byte[]> result = new HashMap<>();
+        Set<String> tried = new HashSet<>();
+        for (String url : urls) {
+            if (url == null || url.isBlank() || !tried.add(url)) continue;
+            long remaining = budget.remainingMs();
+            if (remaining < MIN_FETCH_MS) {
+                log.warn("Hết ngân sách tải ảnh → bỏ {}", url);
+                continue;
+            }
+            byte[] data = fetch(url, "export", remaining);
+            if (data != null) result.put(url, data);
+        }
+        return result;
+    }
+
+    /**
+     * @param consumer nơi dùng ảnh ("export", ...), ghi vào ImageResolveEvent
+     * @param limitMs thời gian tối đa cho ảnh này (còn bị giới hạn bởi connect/read timeout cấu hình)
+     * @return nội dung ảnh, null nếu lỗi / quá thời gian / quá lớn
+     */
+    public byte[] fetch(String url, String consumer, long limitMs) {
+        ImageResolveEvent event = new ImageResolveEvent();
+        event.begin();
+        byte[] data = download(url, Math.min(limitMs, (long) connectTimeoutMs + readTimeoutMs));
+        event.taskId = TaskContext.current();
+        event.source = consumer;
+        event.target = url;
+        event.bytes = data == null ? 0 : data.length;
+        event.success = data != null;
+        event.commit();
+        return data;
+    }
+
+    private byte[] download(String url, long limitMs) {
+        long start = System.nanoTime();
+        HttpURLConnection conn = null;
+        try {
+            conn = (HttpURLConnection) URI.create(url).toURL().openConnection();
+            conn.setConnectTimeout((int) Math.max(1, Math.min(connectTimeoutMs, limitMs)));
+            conn.setReadTimeout((int) Math.max(1, Math.min(readTimeoutMs, limitMs)));
+            conn.setInstanceFollowRedirects(true);
+            if (conn.getResponseCode() / 100 != 2) {
+                log.warn("Bỏ ảnh {}: HTTP {}", url, conn.getResponseCode());
+                return null;
+            }
+            try (InputStream in = conn.getInputStream()) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buf = new byte[16 * 1024];
+                int n;
+                while ((n = in.read(buf)) > 0) {
+                    out.write(buf, 0, n);
+                    if (out.size() > maxBytes) throw new IOException("ảnh lớn hơn " + maxBytes + " bytes");
+                    if ((System.nanoTime() - start) / 1_000_000 > limitMs) {
+                        throw new IOException("tải ảnh quá " + limitMs + "ms");
+                    }
+                }
+                return out.toByteArray();
+            }
+        } catch (Exception e) {
+            log.warn("Bỏ ảnh {}: {}", url, e.getMessage());
+            return null;
+        } finally {
+            if (conn != null) conn.disconnect();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+// src/main/java/com/bkap/aislide/export/PdfExporter.java
+package com.bkap.aislide.export;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import com.bkap.aislide.profiling.PdfRenderEvent;
+import com.bkap.aislide.profiling.TaskContext;
+import com.openhtmltopdf.extend.FSStream;
+import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
+
+import jakarta.annotation.PostConstruct;
+
+/** HTML (từ SlideTemplateEngine) → PDF bằng openhtmltopdf; ảnh http(s) lấy từ bản đã tải sẵn (ExportService), không tự tải. */
+@Component
+public class PdfExporter {
+
+    // XHTML cho openhtmltopdf: đóng thẻ rỗng + escape '&' lẻ
+    private static final Pattern VOID_TAG = Pattern.compile("(?i)<(meta|img|br|hr)([^>]*)(?<!/)>");
+    private static final Pattern BARE_AMP = Pattern.compile("&(?!amp;|lt;|gt;|quot;|#)");
+
+    // Font đọc 1 lần lúc khởi động (classpath, hoặc thư mục nguồn khi chạy từ IDE)
+    private byte[] regularFont;
+    private byte[] boldFont;
+
+    @PostConstruct
+    public void loadFonts() throws IOException {
+        regularFont = readFont("NotoSans-Regular.ttf");
+        boldFont = readFont("NotoSans-Bold.ttf");
+    }
+
+    private byte[] readFont(String name) throws IOException {
+        ClassPathResource res = new ClassPathResource("fonts/" + name);
+        if (res.exists()) {
+            try (InputStream in = res.getInputStream()) {
+                return in.readAllBytes();
+            }
+        }
+        Path path = Paths.get("src/main/resources/fonts", name).toAbsolutePath();
+        return Files.exists(path) ? Files.readAllBytes(path) : null;
+    }
+
+    public byte[] render(String html) throws Exception {
+        return render(html, 0, Map.of());
+    }
+
+    /**
+     * @param slideCount chỉ dùng cho JFR event (0 = không rõ)
+     * @param images URL ảnh → nội dung đã tải (ImageFetcher#fetchAll); URL không có trong map bị bỏ
+     */
+    public byte[] render(String html, int slideCount, Map<String, byte[]> images) throws Exception {
+        String finalHtml = BARE_AMP.matcher(
+                VOID_TAG.matcher(html).replaceAll("<$1$2 />"))
+            .replaceAll("&amp;")
+            .trim();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PdfRendererBuilder builder = new PdfRendererBuilder();
+
+        builder.useFastMode();
+        builder.withProducer("AI Slide Pro v19.0");
+        builder.withHtmlContent(finalHtml, null);
+        // Mặc định openhtmltopdf tự tải ảnh (không timeout) → chỉ dùng ảnh đã tải sẵn, layout không chạm mạng
+        builder.useHttpStreamImplementation(url -> preloaded(images.get(url)));
+        builder.toStream(out);
+
+        if (regularFont != null) builder.useFont(() -> new ByteArrayInputStream(regularFont), "NotoSans", 400, PdfRendererBuilder.FontStyle.NORMAL, true);
+        if (boldFont != null) builder.useFont(() -> new ByteArrayInputStream(boldFont), "NotoSans", 700, PdfRendererBuilder.FontStyle.NORMAL, true);
+
+        try (var renderer = builder.buildPdfRenderer()) {
+            PdfRenderEvent layout = stageEvent("layout", slideCount, finalHtml.length());
+            renderer.layout();
+            layout.commit();
+
+            PdfRenderEvent write = stageEvent("write", slideCount, finalHtml.length());
+            renderer.createPDF(out);
+            write.outputBytes = out.size();
+            write.commit();
+        }
+
+        return out.toByteArray();
+    }
+
+    /** Ảnh không tải được → stream null, openhtmltopdf bỏ ảnh đó và render tiếp. */
+    private static FSStream preloaded(byte[] data) {
+        return new FSStream() {
+            @Override
+            public InputStream getStream() {
+                return data == null ? null : new ByteArrayInputStream(data);
+            }
+
+            @Override
+            public Reader getReader() {
+                return data == null ? null : new InputStreamReader(new ByteArrayInputStream(data), StandardCharsets.UTF_8);
+            }
+        };
+    }
+
+    private static PdfRenderEvent stageEvent(String stage, int slideCount, long inputChars) {
+        PdfRenderEvent e = new PdfRenderEvent();
+        e.begin();
+        e.taskId = TaskContext.current();
+        e.stage = stage;
+        e.slideCount = slideCount;
+        e.inputBytes = inputChars;
+        return e;
+    }
+}
@@ -0,0 +1,321 @@
+// src/main/java/com/bkap/aislide/export/PdfOptimizer.java
+package com.bkap.aislide.export;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.pdfbox.contentstream.PDFStreamEngine;
+import org.apache.pdfbox.contentstream.operator.DrawObject;
+import org.apache.pdfbox.contentstream.operator.Operator;
+import org.apache.pdfbox.contentstream.operator.state.Concatenate;
+import org.apache.pdfbox.contentstream.operator.state.Restore;
+import org.apache.pdfbox.contentstream.operator.state.Save;
+import org.apache.pdfbox.contentstream.operator.state.SetGraphicsStateParameters;
+import org.apache.pdfbox.contentstream.operator.state.SetMatrix;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDFontDescriptor;
+import org.apache.pdfbox.pdmodel.graphics.PDXObject;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.pdmodel.graphics.image.JPEGFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.apache.pdfbox.util.Matrix;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.bkap.aislide.profiling.PdfRenderEvent;
+import com.bkap.aislide.profiling.TaskContext;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Hậu xử lý PDF bằng PDFBox:
+ *  - gộp image XObject và font file trùng nội dung giữa các trang (giữ 1 bản, đối tượng thừa không được ghi lại);
+ *  - giảm độ phân giải ảnh vượt target DPI và nén lại JPEG; DPI hiệu dụng tính theo kích thước ảnh
+ *    thực sự được vẽ (CTM lúc gặp toán tử Do), ảnh không tìm thấy trong content stream thì theo bề rộng trang;
+ *  - object stream + linearize ("fast web view"): PDFBox 2.x (bản openhtmltopdf dùng) không hỗ trợ,
+ *    nên chỉ làm khi có qpdf (pdf.optimize.qpdf-path).
+ * Kết quả lớn hơn bản gốc thì giữ bản gốc.
+ */
+@Component
+public class PdfOptimizer {
+
+    private static final Logger log = LoggerFactory.getLogger(PdfOptimizer.class);
+
+    /** Mức cân bằng chất lượng/dung lượng. */
+    public enum Preset {
+        HIGH(200, 0.9f),
+        BALANCED(150, 0.8f),
+        SMALL(96, 0.65f);
+
+        final int dpi;
+        final float jpegQuality;
+
+        Preset(int dpi, float jpegQuality) {
+            this.dpi = dpi;
+            this.jpegQuality = jpegQuality;
+        }
+    }
+
+    public record Result(byte[] bytes, int before, int after) {}
+
+    @Value("${pdf.optimize.enabled:true}")
+    private boolean enabled;
+
+    @Value("${pdf.optimize.preset:BALANCED}")
+    private Preset preset;
+
+    // -1 = theo preset
+    @Value("${pdf.optimize.target-dpi:-1}")
+    private int targetDpiOverride;
+
+    @Value("${pdf.optimize.jpeg-quality:-1}")
+    private float jpegQualityOverride;
+
+    @Value("${pdf.optimize.qpdf-path:}")
+    private String qpdfPath;
+
+    private int targetDpi;
+    private float jpegQuality;
+    private boolean qpdfAvailable;
+
+    private final AtomicLong documents = new AtomicLong();
+    private final AtomicLong bytesBefore = new AtomicLong();
+    private final AtomicLong bytesAfter = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        targetDpi = targetDpiOverride > 0 ? targetDpiOverride : preset.dpi;
+        jpegQuality = jpegQualityOverride > 0 ? jpegQualityOverride : preset.jpegQuality;
+        qpdfAvailable = !qpdfPath.isBlank() && Files.isExecutable(Paths.get(qpdfPath));
+        log.info("PDF optimizer: preset={} dpi={} jpeg={} qpdf={}", preset, targetDpi, jpegQuality,
+            qpdfAvailable ? qpdfPath : "không có (bỏ qua object stream/linearize)");
+    }
+
+    public Result optimize(byte[] pdf) {
+        if (!enabled) return new Result(pdf, pdf.length, pdf.length);
+
+        PdfRenderEvent event = new PdfRenderEvent();
+        event.begin();
+        byte[] out = pdf;
+        try {
+            out = rewrite(pdf);
+            if (qpdfAvailable) out = linearize(out);
+        } catch (Exception e) {
+            log.warn("Tối ưu PDF lỗi → giữ bản gốc: {}", e.getMessage());
+        }
+        if (out.length >= pdf.length) out = pdf;
+        event.taskId = TaskContext.current();
+        event.stage = "optimize";
+        event.inputBytes = pdf.length;
+        event.outputBytes = out.length;
+        event.commit();
+
+        documents.incrementAndGet();
+        bytesBefore.addAndGet(pdf.length);
+        bytesAfter.addAndGet(out.length);
+        log.info("PDF tối ưu: {} → {} bytes ({}%)", pdf.length, out.length,
+            pdf.length == 0 ? 0 : Math.round(100.0 * (pdf.length - out.length) / pdf.length));
+        return new Result(out, pdf.length, out.length);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("documents", documents.get());
+        m.put("bytesBefore", bytesBefore.get());
+        m.put("bytesAfter", bytesAfter.get());
+        m.put("preset", preset.name());
+        m.put("targetDpi", targetDpi);
+        m.put("linearize", qpdfAvailable);
+        return m;
+    }
+
+    private byte[] rewrite(byte[] pdf) throws IOException {
+        try (PDDocument doc = PDDocument.load(pdf)) {
+            Map<String, PDImageXObject> images = new HashMap<>();
+            Map<String, COSBase> fontFiles = new HashMap<>();
+            Map<COSStream, String> keys = new IdentityHashMap<>();
+
+            // Lượt 1: kích thước vẽ lớn nhất của từng ảnh → bề rộng pixel cần giữ (gộp theo nội dung)
+            DrawnSizes drawn = new DrawnSizes();
+            for (PDPage page : doc.getPages()) drawn.processPage(page);
+            Map<String, Float> targetPx = new HashMap<>();
+            for (DrawnSizes.Drawn d : drawn.images.values()) {
+                float px = Math.max(d.widthPt, d.heightPt * d.image.getWidth() / (float) d.image.getHeight()) / 72f * targetDpi;
+                targetPx.merge(imageKey(d.image, keys), px, Math::max);
+            }
+
+            for (PDPage page : doc.getPages()) {
+                float pagePx = page.getMediaBox().getWidth() / 72f * targetDpi;
+                if (page.getResources() != null) {
+                    processResources(doc, page.getResources(), pagePx, targetPx, keys, images, fontFiles);
+                }
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(pdf.length);
+            doc.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    private void processResources(PDDocument doc, PDResources res, float pagePx, Map<String, Float> targetPx,
+                                  Map<COSStream, String> keys, Map<String, PDImageXObject> images,
+                                  Map<String, COSBase> fontFiles) throws IOException {
+        List<COSName> names = new ArrayList<>();
+        res.getXObjectNames().forEach(names::add);
+
+        for (COSName name : names) {
+            PDXObject x = res.getXObject(name);
+            if (x instanceof PDImageXObject img) {
+                String key = imageKey(img, keys);
+                PDImageXObject canonical = images.get(key);
+                if (canonical == null) {
+                    canonical = downsample(doc, img, targetPx.getOrDefault(key, pagePx));
+                    images.put(key, canonical);
+                }
+                if (canonical != img) res.put(name, canonical);
+            } else if (x instanceof PDFormXObject form && form.getResources() != null) {
+                processResources(doc, form.getResources(), pagePx, targetPx, keys, images, fontFiles);
+            }
+        }
+
+        for (COSName name : res.getFontNames()) {
+            PDFont font = res.getFont(name);
+            PDFontDescriptor fd = font == null ? null : font.getFontDescriptor();
+            if (fd == null) continue;
+            for (COSName key : new COSName[] { COSName.FONT_FILE, COSName.FONT_FILE2, COSName.FONT_FILE3 }) {
+                COSBase file = fd.getCOSObject().getDictionaryObject(key);
+                if (!(file instanceof COSStream stream)) continue;
+                COSBase canonical = fontFiles.putIfAbsent(hash(stream), stream);
+                if (canonical != null && canonical != stream) fd.getCOSObject().setItem(key, canonical);
+            }
+        }
+    }
+
+    /** Khóa gộp ảnh: băm nội dung thô + kích thước; nhớ theo đối tượng để không băm lại. */
+    private String imageKey(PDImageXObject img, Map<COSStream, String> keys) throws IOException {
+        String key = keys.get(img.getCOSObject());
+        if (key == null) {
+            key = hash(img.getCOSObject()) + ":" + img.getWidth() + "x" + img.getHeight() + ":" + img.getBitsPerComponent();
+            keys.put(img.getCOSObject(), key);
+        }
+        return key;
+    }
+
+    /** Duyệt content stream (cả form XObject lồng nhau), ghi kích thước lớn nhất mỗi ảnh được vẽ, đơn vị point. */
+    private static final class DrawnSizes extends PDFStreamEngine {
+
+        static final class Drawn {
+            final PDImageXObject image;
+            float widthPt;
+            float heightPt;
+
+            Drawn(PDImageXObject image) {
+                this.image = image;
+            }
+        }
+
+        final Map<COSStream, Drawn> images = new IdentityHashMap<>();
+
+        DrawnSizes() {
+            addOperator(new Concatenate());
+            addOperator(new DrawObject());
+            addOperator(new SetGraphicsStateParameters());
+            addOperator(new Save());
+            addOperator(new Restore());
+            addOperator(new SetMatrix());
+        }
+
+        @Override
+        protected void processOperator(Operator operator, List<COSBase> operands) throws IOException {
+            if ("Do".equals(operator.getName()) && !operands.isEmpty() && operands.get(0) instanceof COSName name
+                && getResources().getXObject(name) instanceof PDImageXObject img && img.getHeight() > 0) {
+                // Ảnh chiếm hình vuông đơn vị, CTM co giãn nó thành kích thước trên trang
+                Matrix ctm = getGraphicsState().getCurrentTransformationMatrix();
+                Drawn d = images.computeIfAbsent(img.getCOSObject(), k -> new Drawn(img));
+                d.widthPt = Math.max(d.widthPt, Math.abs(ctm.getScalingFactorX()));
+                d.heightPt = Math.max(d.heightPt, Math.abs(ctm.getScalingFactorY()));
+                return;
+            }
+            super.processOperator(operator, operands);
+        }
+    }
+
+    private PDImageXObject downsample(PDDocument doc, PDImageXObject img, float maxPx) throws IOException {
+        if (img.getWidth() <= maxPx) return img;
+
+        int w = Math.round(maxPx);
+        int h = Math.max(1, Math.round(img.getHeight() * (maxPx / img.getWidth())));
+        boolean alpha = img.getCOSObject().getDictionaryObject(COSName.SMASK) != null;
+
+        BufferedImage src = img.getImage();
+        BufferedImage scaled = new BufferedImage(w, h, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = scaled.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(src, 0, 0, w, h, null);
+        g.dispose();
+
+        return alpha ? LosslessFactory.createFromImage(doc, scaled) : JPEGFactory.createFromImage(doc, scaled, jpegQuality);
+    }
+
+    private byte[] linearize(byte[] pdf) throws IOException, InterruptedException {
+        Path in = Files.createTempFile("aislide-", ".pdf");
+        Path out = Files.createTempFile("aislide-", ".lin.pdf");
+        try {
+            Files.write(in, pdf);
+            Process p = new ProcessBuilder(qpdfPath, "--linearize", "--object-streams=generate",
+                    "--compress-streams=y", in.toString(), out.toString())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+            if (!p.waitFor(30, TimeUnit.SECONDS)) {
+                p.destroyForcibly();
+                throw new IOException("qpdf quá thời gian");
+            }
+            // qpdf: 0 = ok, 3 = ok kèm cảnh báo
+            if (p.exitValue() != 0 && p.exitValue() != 3) throw new IOException("qpdf exit " + p.exitValue());
+            return Files.readAllBytes(out);
+        } finally {
+            Files.deleteIfExists(in);
+            Files.deleteIfExists(out);
+        }
+    }
+
+    private String hash(COSStream stream) throws IOException {
+        try (InputStream in = stream.createRawInputStream()) {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] buf = new byte[8192];
+            int n;
+            while ((n = in.read(buf)) > 0) md.update(buf, 0, n);
+            return HexFormat.of().formatHex(md.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
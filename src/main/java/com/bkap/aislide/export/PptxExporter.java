@@ -0,0 +1,124 @@
+// src/main/java/com/bkap/aislide/export/PptxExporter.java
+package com.bkap.aislide.export;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.geom.Rectangle2D;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.sl.usermodel.PictureData.PictureType;
+import org.apache.poi.sl.usermodel.TextParagraph.TextAlign;
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.apache.poi.xslf.usermodel.XSLFPictureData;
+import org.apache.poi.xslf.usermodel.XSLFPictureShape;
+import org.apache.poi.xslf.usermodel.XSLFSlide;
+import org.apache.poi.xslf.usermodel.XSLFTextBox;
+import org.apache.poi.xslf.usermodel.XSLFTextParagraph;
+import org.apache.poi.xslf.usermodel.XSLFTextRun;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.bkap.aislide.dto.SlideContent;
+
+/** Mô hình slide → PowerPoint chỉnh sửa được (Apache POI), không đi qua PDF. */
+@Component
+public class PptxExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(PptxExporter.class);
+
+    // 16:9, đơn vị point
+    private static final int WIDTH = 960;
+    private static final int HEIGHT = 540;
+    private static final Color TITLE_COLOR = new Color(0x1e, 0x29, 0x3b);
+    private static final Color BODY_COLOR = new Color(0x33, 0x41, 0x55);
+
+    /** @param images URL ảnh → nội dung đã tải (dùng chung với PDF để 2 định dạng cùng 1 ảnh) */
+    public byte[] build(List<SlideContent> slides, Map<String, byte[]> images) throws IOException {
+        try (XMLSlideShow ppt = new XMLSlideShow();
+             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+
+            ppt.setPageSize(new Dimension(WIDTH, HEIGHT));
+
+            for (SlideContent s : slides) {
+                XSLFSlide slide = ppt.createSlide();
+                XSLFPictureData picture = picture(ppt, s.imageUrl(), images);
+                double textWidth = picture != null ? 560 : WIDTH - 80;
+
+                XSLFTextBox title = slide.createTextBox();
+                title.setAnchor(new Rectangle2D.Double(40, 30, WIDTH - 80, 80));
+                XSLFTextRun titleRun = title.setText(s.title());
+                titleRun.setFontSize(36.0);
+                titleRun.setBold(true);
+                titleRun.setFontColor(TITLE_COLOR);
+                title.getTextParagraphs().get(0).setTextAlign(TextAlign.CENTER);
+
+                XSLFTextBox body = slide.createTextBox();
+                body.setAnchor(new Rectangle2D.Double(40, 130, textWidth, HEIGHT - 170));
+                body.setWordWrap(true);
+                body.clearText();
+                addBody(body, s.contentHtml());
+
+                if (picture != null) {
+                    XSLFPictureShape pic = slide.createPicture(picture);
+                    pic.setAnchor(new Rectangle2D.Double(620, 130, 300, 370));
+                }
+            }
+
+            ppt.write(out);
+            return out.toByteArray();
+        }
+    }
+
+    /** HTML nội dung (p, li, button) → đoạn văn; li → bullet. */
+    private void addBody(XSLFTextBox box, String html) {
+        if (html == null || html.isBlank()) return;
+        for (Element el : Jsoup.parseBodyFragment(html).body().select("p, li, button")) {
+            String text = el.text().trim();
+            if (text.isEmpty()) continue;
+            XSLFTextParagraph p = box.addNewTextParagraph();
+            p.setBullet(el.tagName().equals("li"));
+            if (el.tagName().equals("button")) p.setTextAlign(TextAlign.CENTER);
+            XSLFTextRun r = p.addNewTextRun();
+            r.setText(text);
+            r.setFontSize(20.0);
+            r.setFontColor(BODY_COLOR);
+            r.setBold(el.tagName().equals("button"));
+        }
+    }
+
+    /** Nhúng ảnh đã tải; null nếu không tải được hoặc định dạng POI không nhúng được (WebP, SVG, trang lỗi HTML...). */
+    private XSLFPictureData picture(XMLSlideShow ppt, String url, Map<String, byte[]> images) {
+        if (url == null || url.isBlank()) return null;
+        byte[] img = images.get(url);
+        if (img == null || img.length == 0) return null;
+        PictureType type = pictureType(img);
+        if (type == null) {
+            log.warn("Bỏ ảnh không hỗ trợ trong PPTX: {}", url);
+            return null;
+        }
+        return ppt.addPicture(img, type);
+    }
+
+    /** Nhận dạng theo magic bytes; null nếu không phải PNG/JPEG/GIF/BMP. */
+    static PictureType pictureType(byte[] img) {
+        if (startsWith(img, 0x89, 'P', 'N', 'G')) return PictureType.PNG;
+        if (startsWith(img, 0xFF, 0xD8, 0xFF)) return PictureType.JPEG;
+        if (startsWith(img, 'G', 'I', 'F', '8')) return PictureType.GIF;
+        if (startsWith(img, 'B', 'M')) return PictureType.BMP;
+        return null;
+    }
+
+    private static boolean startsWith(byte[] data, int... magic) {
+        if (data.length < magic.length) return false;
+        for (int i = 0; i < magic.length; i++) {
+            if ((data[i] & 0xFF) != magic[i]) return false;
+        }
+        return true;
+    }
+}
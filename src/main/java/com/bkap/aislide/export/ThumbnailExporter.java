@@ -0,0 +1,52 @@
+// src/main/java/com/bkap/aislide/export/ThumbnailExporter.java
+package com.bkap.aislide.export;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/** Raster từng trang PDF thành ảnh nhỏ (DPI thấp) cho list view. */
+@Component
+public class ThumbnailExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(ThumbnailExporter.class);
+
+    // Trang 1920px ≈ 1440pt → 24 DPI ≈ ảnh rộng 480px
+    @Value("${export.thumbnail-dpi:24}")
+    private float dpi;
+
+    public record Thumbnails(String ext, List<byte[]> pages) {}
+
+    public Thumbnails render(byte[] pdf, ExportFormat format) throws IOException {
+        String ext = format.ext();
+        if (format == ExportFormat.WEBP && !ImageIO.getImageWritersByFormatName("webp").hasNext()) {
+            // JDK không có WebP writer; chỉ dùng được khi có plugin ImageIO trên classpath
+            log.warn("Không có ImageIO writer cho WebP → xuất PNG");
+            ext = ExportFormat.PNG.ext();
+        }
+
+        List<byte[]> pages = new ArrayList<>();
+        try (PDDocument doc = PDDocument.load(pdf)) {
+            PDFRenderer renderer = new PDFRenderer(doc);
+            for (int i = 0; i < doc.getNumberOfPages(); i++) {
+                BufferedImage img = renderer.renderImageWithDPI(i, dpi, ImageType.RGB);
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                ImageIO.write(img, ext, out);
+                pages.add(out.toByteArray());
+            }
+        }
+        return new Thumbnails(ext, pages);
+    }
+}
@@ -0,0 +1,38 @@
+// src/main/java/com/bkap/aislide/llm/LatencyHistogram.java
+package com.bkap.aislide.llm;
+
+import java.util.Arrays;
+
+/** Cửa sổ trượt N mẫu latency gần nhất (ms); percentile tính bằng sort bản sao (N nhỏ). */
+public class LatencyHistogram {
+
+    private final long[] samples;
+    private int next;
+    private int size;
+
+    public LatencyHistogram(int window) {
+        this.samples = new long[window];
+    }
+
+    public synchronized void record(long millis) {
+        samples[next] = millis;
+        next = (next + 1) % samples.length;
+        if (size < samples.length) size++;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /** @return percentile {@code p} (0..1), hoặc -1 khi chưa có mẫu. */
+    public long percentile(double p) {
+        long[] copy;
+        synchronized (this) {
+            if (size == 0) return -1;
+            copy = Arrays.copyOf(samples, size);
+        }
+        Arrays.sort(copy);
+        int idx = (int) Math.ceil(p * copy.length) - 1;
+        return copy[Math.max(0, Math.min(copy.length - 1, idx))];
+    }
+}
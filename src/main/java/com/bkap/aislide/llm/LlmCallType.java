@@ -0,0 +1,26 @@
+// src/main/java/com/bkap/aislide/llm/LlmCallType.java
+package com.bkap.aislide.llm;
+
+/** Loại lời gọi LLM → chọn model (nhanh/mạnh), max_tokens và ngưỡng hedge riêng. */
+public enum LlmCallType {
+    OUTLINE(false, 800),
+    OUTLINE_FOLLOWUP(false, 400),
+    SLIDE_BODY(true, 800),
+    IMAGE_KEYWORD(false, 30);
+
+    private final boolean strong;
+    private final int maxTokens;
+
+    LlmCallType(boolean strong, int maxTokens) {
+        this.strong = strong;
+        this.maxTokens = maxTokens;
+    }
+
+    public boolean strong() {
+        return strong;
+    }
+
+    public int maxTokens() {
+        return maxTokens;
+    }
+}
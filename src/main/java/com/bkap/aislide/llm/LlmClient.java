@@ -0,0 +1,298 @@
+// src/main/java/com/bkap/aislide/llm/LlmClient.java
+package com.bkap.aislide.llm;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import com.bkap.aislide.profiling.LlmCallEvent;
+import com.bkap.aislide.profiling.TaskContext;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Lớp định tuyến LLM:
+ *  - chọn model theo loại lời gọi (llm.fast-model cho outline/từ khóa ảnh, llm.strong-model cho nội dung slide);
+ *  - hedged request: nếu lần gọi đầu chưa xong sau p95 quan sát được của (model, loại) thì gửi thêm 1 bản,
+ *    bản nào về trước thắng, bản còn lại bị hủy;
+ *  - histogram latency trượt theo (model, loại) điều khiển ngưỡng hedge; thống kê hedge rate / win rate.
+ *    Lần gọi quá hạn / bị hủy cũng được ghi (tại thời gian đã chờ, quá hạn thì ít nhất timeout) để p95
+ *    không chỉ phản ánh các lần gọi nhanh khi upstream chậm.
+ */
+@Service
+public class LlmClient {
+
+    private static final Logger log = LoggerFactory.getLogger(LlmClient.class);
+
+    @Value("${openai.api-key}")
+    private String apiKey;
+
+    @Value("${openai.base-url:https://api.openai.com}")
+    private String baseUrl;
+
+    @Value("${llm.fast-model:${openai.model}}")
+    private String fastModel;
+
+    @Value("${llm.strong-model:${openai.model}}")
+    private String strongModel;
+
+    @Value("${llm.timeout-ms:60000}")
+    private long timeoutMs;
+
+    @Value("${llm.hedge.enabled:true}")
+    private boolean hedgeEnabled;
+
+    @Value("${llm.hedge.percentile:0.95}")
+    private double hedgePercentile;
+
+    // Chưa đủ mẫu thì chưa hedge (p95 từ vài mẫu không đáng tin)
+    @Value("${llm.hedge.min-samples:20}")
+    private int hedgeMinSamples;
+
+    @Value("${llm.hedge.min-delay-ms:300}")
+    private long hedgeMinDelayMs;
+
+    @Value("${llm.histogram-window:200}")
+    private int histogramWindow;
+
+    private final RestTemplate restTemplate;
+    private final AsyncTaskExecutor executor;
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "llm-hedge-timer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final Map<LlmCallType, TypeStats> stats = new ConcurrentHashMap<>();
+
+    private static final class TypeStats {
+        final AtomicLong calls = new AtomicLong();
+        final AtomicLong hedged = new AtomicLong();
+        final AtomicLong hedgeWins = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+    }
+
+    /** 1 lần gọi (chính hoặc hedge); mỗi lần gọi ghi tối đa 1 mẫu latency. */
+    private static final class Attempt {
+        final long start = System.nanoTime();
+        final boolean hedge;
+        // true khi đã ghi mẫu, hoặc lỗi HTTP (không phải mẫu latency)
+        final AtomicBoolean settled = new AtomicBoolean();
+        Future<?> future;
+
+        Attempt(boolean hedge) {
+            this.hedge = hedge;
+        }
+
+        long elapsedMs() {
+            return (System.nanoTime() - start) / 1_000_000;
+        }
+
+        void record(LatencyHistogram histogram, long millis) {
+            if (settled.compareAndSet(false, true)) histogram.record(millis);
+        }
+    }
+
+    public LlmClient(RestTemplate restTemplate, @Qualifier("llmExecutor") AsyncTaskExecutor executor) {
+        this.restTemplate = restTemplate;
+        this.executor = executor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    public String modelFor(LlmCallType type) {
+        return type.strong() ? strongModel : fastModel;
+    }
+
+    /** Gọi chat completion với timeout mặc định llm.timeout-ms. */
+    public String complete(LlmCallType type, String prompt) {
+        return complete(type, prompt, timeoutMs);
+    }
+
+    /**
+     * @throws LlmTimeoutException khi quá {@code timeoutMillis} (các lần gọi đang chạy bị hủy)
+     */
+    public String complete(LlmCallType type, String prompt, long timeoutMillis) {
+        String model = modelFor(type);
+        LatencyHistogram histogram = histograms.computeIfAbsent(model + "|" + type,
+            k -> new LatencyHistogram(histogramWindow));
+        TypeStats st = stats.computeIfAbsent(type, k -> new TypeStats());
+        st.calls.incrementAndGet();
+
+        CompletableFuture<String> result = new CompletableFuture<>();
+        List<Attempt> attempts = new ArrayList<>();
+        AtomicInteger pending = new AtomicInteger(1);
+
+        String taskId = TaskContext.current();
+        synchronized (attempts) {
+            attempts.add(launch(taskId, type, model, prompt, histogram, result, pending, false));
+        }
+        boolean timedOut = false;
+
+        long delay = hedgeDelay(histogram);
+        if (delay >= 0 && delay < timeoutMillis) {
+            timer.schedule(() -> {
+                if (result.isDone()) return;
+                st.hedged.incrementAndGet();
+                pending.incrementAndGet();
+                try {
+                    synchronized (attempts) {
+                        attempts.add(launch(taskId, type, model, prompt, histogram, result, pending, true));
+                    }
+                    log.info("Hedge LLM {} sau {}ms", type, delay);
+                } catch (RejectedExecutionException e) {
+                    pending.decrementAndGet();
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+
+        try {
+            return result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timedOut = true;
+            st.failures.incrementAndGet();
+            throw new LlmTimeoutException(type + " quá " + timeoutMillis + "ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Bị ngắt khi chờ LLM", e);
+        } catch (ExecutionException e) {
+            st.failures.incrementAndGet();
+            throw e.getCause() instanceof RuntimeException re ? re : new IllegalStateException(e.getCause());
+        } finally {
+            // Hủy bản thua / bản còn treo; ghi latency đã chờ (lần gọi chính quá hạn: ít nhất timeout)
+            synchronized (attempts) {
+                for (Attempt a : attempts) {
+                    long floor = timedOut && !a.hedge ? timeoutMillis : 0;
+                    a.record(histogram, Math.max(floor, a.elapsedMs()));
+                    a.future.cancel(true);
+                }
+            }
+        }
+    }
+
+    private Attempt launch(String taskId, LlmCallType type, String model, String prompt, LatencyHistogram histogram,
+                           CompletableFuture<String> result, AtomicInteger pending, boolean hedge) {
+        Attempt attempt = new Attempt(hedge);
+        attempt.future = executor.submit(() -> {
+            LlmCallEvent event = new LlmCallEvent();
+            event.begin();
+            event.taskId = taskId;
+            event.callType = type.name();
+            event.model = model;
+            event.promptChars = prompt.length();
+            event.hedge = hedge;
+            try {
+                Completion c = call(type, model, prompt);
+                attempt.record(histogram, attempt.elapsedMs());
+                event.promptTokens = c.promptTokens();
+                event.completionTokens = c.completionTokens();
+                event.success = true;
+                if (result.complete(c.content()) && hedge) {
+                    stats.get(type).hedgeWins.incrementAndGet();
+                }
+            } catch (Exception e) {
+                attempt.settled.set(true);
+                // Chỉ báo lỗi khi mọi lần gọi đều thất bại
+                if (pending.decrementAndGet() == 0) result.completeExceptionally(e);
+            } finally {
+                event.commit();
+            }
+        });
+        return attempt;
+    }
+
+    private record Completion(String content, int promptTokens, int completionTokens) {}
+
+    /** -1 = không hedge. */
+    private long hedgeDelay(LatencyHistogram h) {
+        if (!hedgeEnabled || h.size() < hedgeMinSamples) return -1;
+        return Math.max(hedgeMinDelayMs, h.percentile(hedgePercentile));
+    }
+
+    private Completion call(LlmCallType type, String model, String prompt) {
+        var body = Map.of(
+            "model", model,
+            "messages", List.of(Map.of("role", "user", "content", prompt)),
+            "temperature", 0.7,
+            "max_tokens", type.maxTokens()
+        );
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(apiKey);
+
+        ResponseEntity<Map> resp = restTemplate.postForEntity(
+            baseUrl + "/v1/chat/completions",
+            new HttpEntity<>(body, headers),
+            Map.class
+        );
+
+        Map<String, Object> data = resp.getBody();
+        if (data == null || !data.containsKey("choices")) {
+            throw new RuntimeException("OpenAI lỗi");
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> choices = (List<Map<String, Object>>) data.get("choices");
+        @SuppressWarnings("unchecked")
+        Map<String, Object> message = (Map<String, Object>) choices.get(0).get("message");
+        @SuppressWarnings("unchecked")
+        Map<String, Object> usage = data.get("usage") instanceof Map<?, ?> u ? (Map<String, Object>) u : Map.of();
+        return new Completion((String) message.get("content"), tokens(usage, "prompt_tokens"), tokens(usage, "completion_tokens"));
+    }
+
+    private static int tokens(Map<String, Object> usage, String key) {
+        return usage.get(key) instanceof Number n ? n.intValue() : -1;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        stats.forEach((type, st) -> {
+            long calls = st.calls.get();
+            long hedged = st.hedged.get();
+            Map<String, Object> t = new LinkedHashMap<>();
+            t.put("model", modelFor(type));
+            t.put("calls", calls);
+            t.put("failures", st.failures.get());
+            t.put("hedged", hedged);
+            t.put("hedgeRate", calls == 0 ? 0 : (double) hedged / calls);
+            t.put("hedgeWinRate", hedged == 0 ? 0 : (double) st.hedgeWins.get() / hedged);
+            LatencyHistogram h = histograms.get(modelFor(type) + "|" + type);
+            if (h != null) {
+                t.put("p50Ms", h.percentile(0.5));
+                t.put("p95Ms", h.percentile(0.95));
+                t.put("p99Ms", h.percentile(0.99));
+            }
+            m.put(type.name(), t);
+        });
+        return m;
+    }
+}
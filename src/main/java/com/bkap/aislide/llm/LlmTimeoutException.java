@@ -0,0 +1,9 @@
+// src/main/java/com/bkap/aislide/llm/LlmTimeoutException.java
+package com.bkap.aislide.llm;
+
+/** Lời gọi LLM không xong trong thời gian cho phép. */
+public class LlmTimeoutException extends RuntimeException {
+    public LlmTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,78 @@
+// src/main/java/com/bkap/aislide/outline/LenientOutlineParser.java
+package com.bkap.aislide.outline;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import com.bkap.aislide.dto.SlideItem;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+/**
+ * Đọc outline từ phản hồi LLM mà không bỏ cả mảng khi JSON hỏng.
+ * Quét từng object phẳng {...} (bỏ qua ngoặc trong chuỗi), parse riêng từng object:
+ * object bị cắt cụt / sai cú pháp bị bỏ, các object hợp lệ còn lại vẫn được giữ.
+ */
+public final class LenientOutlineParser {
+
+    private static final JsonMapper MAPPER = JsonMapper.builder()
+        .enable(JsonReadFeature.ALLOW_SINGLE_QUOTES)
+        .enable(JsonReadFeature.ALLOW_TRAILING_COMMA)
+        .enable(JsonReadFeature.ALLOW_UNQUOTED_FIELD_NAMES)
+        .build();
+
+    private LenientOutlineParser() {}
+
+    public record Result(List<SlideItem> items, int rejected) {}
+
+    public static Result parse(String raw) {
+        List<SlideItem> items = new ArrayList<>();
+        if (raw == null || raw.isBlank()) return new Result(items, 0);
+
+        int rejected = 0;
+        Deque<int[]> stack = new ArrayDeque<>(); // {vị trí '{', có object con hay không}
+        boolean inString = false;
+
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (inString) {
+                if (c == '\\') i++;
+                else if (c == '"') inString = false;
+                continue;
+            }
+            if (c == '"') {
+                inString = true;
+            } else if (c == '{') {
+                if (!stack.isEmpty()) stack.peek()[1] = 1;
+                stack.push(new int[] { i, 0 });
+            } else if (c == '}' && !stack.isEmpty()) {
+                int[] open = stack.pop();
+                if (open[1] == 1) continue; // object bọc ngoài, vd {"slides": [...]}
+                SlideItem item = toItem(raw.substring(open[0], i + 1));
+                if (item != null) items.add(item);
+                else rejected++;
+            }
+        }
+        // object lá mở mà chưa đóng = bị cắt cụt; object bọc ngoài chưa đóng không tính
+        for (int[] open : stack) {
+            if (open[1] == 0) rejected++;
+        }
+        return new Result(items, rejected);
+    }
+
+    private static SlideItem toItem(String json) {
+        try {
+            JsonNode node = MAPPER.readTree(json);
+            // title phải là chuỗi; type sai kiểu coi như thiếu (OutlineEngine gán BULLET)
+            JsonNode title = node.path("title");
+            if (!title.isTextual() || title.asText().isBlank()) return null;
+            JsonNode type = node.path("type");
+            return new SlideItem(title.asText(), type.isTextual() ? type.asText() : null);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
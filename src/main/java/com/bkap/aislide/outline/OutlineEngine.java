@@ -0,0 +1,219 @@
+// src/main/java/com/bkap/aislide/outline/OutlineEngine.java
+package com.bkap.aislide.outline;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.bkap.aislide.dto.SlideItem;
+import com.bkap.aislide.util.TextNormalizer;
+
+/**
+ * Chuẩn hóa + kiểm tra outline do LLM trả về:
+ *  - sửa thay vì loại: bỏ tiền tố đánh số, cắt tiêu đề quá dài theo ranh giới từ, type lạ → BULLET;
+ *  - loại trùng gần đúng (Jaccard trên token đã bỏ dấu);
+ *  - quota: 1 TITLE đầu, 1 CTA cuối, tối đa outline.max-images slide IMAGE (dư → BULLET).
+ * Phần còn thiếu do AiService xin bổ sung bằng 1 lời gọi nhỏ; chỉ khi vẫn thiếu mới lấy từ outline mẫu.
+ */
+@Component
+public class OutlineEngine {
+
+    public static final String TITLE = "TITLE";
+    public static final String BULLET = "BULLET";
+    public static final String IMAGE = "IMAGE";
+    public static final String CTA = "CTA";
+    private static final Set<String> TYPES = Set.of(TITLE, BULLET, IMAGE, CTA);
+
+    // "1. ", "Slide 3:", "#2 -" ...
+    private static final Pattern ENUM_PREFIX = Pattern.compile("^\\s*(?:slide\\s*#?\\d+\\s*[.:)\\-–]?|#?\\d+\\s*[.:)\\-–])\\s*", Pattern.CASE_INSENSITIVE);
+
+    // Tiêu đề thân bài trung tính (không gắn lĩnh vực) cho outline mẫu
+    private static final List<SlideItem> TEMPLATE_BODY = List.of(
+        new SlideItem("Tổng Quan Chủ Đề", BULLET),
+        new SlideItem("Khái Niệm Cốt Lõi", BULLET),
+        new SlideItem("Hình Ảnh Minh Họa", IMAGE),
+        new SlideItem("Bối Cảnh Và Lý Do", BULLET),
+        new SlideItem("Lợi Ích Nổi Bật", BULLET),
+        new SlideItem("Ví Dụ Thực Tế", IMAGE),
+        new SlideItem("Thách Thức Thường Gặp", BULLET),
+        new SlideItem("Cách Vượt Qua Khó Khăn", BULLET),
+        new SlideItem("Quy Trình Áp Dụng", BULLET),
+        new SlideItem("Công Cụ Hỗ Trợ", IMAGE),
+        new SlideItem("Kinh Nghiệm Thành Công", BULLET),
+        new SlideItem("Sai Lầm Cần Tránh", BULLET),
+        new SlideItem("Xu Hướng Tương Lai", BULLET),
+        new SlideItem("Góc Nhìn Khác", BULLET),
+        new SlideItem("Bài Học Rút Ra", BULLET),
+        new SlideItem("Tài Nguyên Tham Khảo", BULLET),
+        new SlideItem("Câu Hỏi Thảo Luận", BULLET),
+        new SlideItem("Tóm Tắt Ý Chính", BULLET)
+    );
+    private static final SlideItem TEMPLATE_CTA = new SlideItem("Bắt Đầu Ngay!", CTA);
+
+    @Value("${outline.similarity-threshold:0.6}")
+    private double similarityThreshold;
+
+    @Value("${outline.max-images:4}")
+    private int maxImages;
+
+    @Value("${outline.max-title-length:45}")
+    private int maxTitleLength;
+
+    private final AtomicLong outlines = new AtomicLong();
+    private final AtomicLong salvaged = new AtomicLong();
+    private final AtomicLong followUps = new AtomicLong();
+    private final AtomicLong templateSlides = new AtomicLong();
+    private final AtomicLong fullFallbacks = new AtomicLong();
+
+    /** Outline đang dựng: giữ thứ tự, chặn trùng gần đúng. */
+    public final class Draft {
+        private final String topic;
+        private final int count;
+        private SlideItem title;
+        private SlideItem cta;
+        private final List<SlideItem> body = new ArrayList<>();
+        private final List<Set<String>> seen = new ArrayList<>();
+        private int images;
+
+        private Draft(String topic, int count) {
+            this.topic = topic;
+            this.count = count;
+        }
+
+        /** @return true nếu slide được nhận (sau khi chuẩn hóa). */
+        public boolean offer(SlideItem raw) {
+            String t = cleanTitle(raw.title());
+            if (t.isEmpty()) return false;
+
+            Set<String> tokens = new HashSet<>(TextNormalizer.tokens(t));
+            if (tokens.isEmpty() || isNearDuplicate(tokens)) return false;
+
+            String type = normalizeType(raw.type());
+            if (type.equals(TITLE) && title == null) {
+                title = new SlideItem(t, TITLE);
+            } else if (type.equals(CTA) && cta == null) {
+                cta = new SlideItem(t, CTA);
+            } else {
+                if (bodyMissing() == 0) return false;
+                if (type.equals(IMAGE) && images >= maxImages) type = BULLET;
+                if (type.equals(TITLE) || type.equals(CTA)) type = BULLET;
+                if (type.equals(IMAGE)) images++;
+                body.add(new SlideItem(t, type));
+            }
+            seen.add(tokens);
+            return true;
+        }
+
+        /** Số slide thân bài (BULLET/IMAGE) còn thiếu. */
+        public int bodyMissing() {
+            return Math.max(0, count - 2 - body.size());
+        }
+
+        public int imageSlotsLeft() {
+            return Math.max(0, maxImages - images);
+        }
+
+        public List<String> titles() {
+            List<String> list = new ArrayList<>();
+            if (title != null) list.add(title.title());
+            body.forEach(s -> list.add(s.title()));
+            if (cta != null) list.add(cta.title());
+            return list;
+        }
+
+        private boolean isNearDuplicate(Set<String> tokens) {
+            for (Set<String> other : seen) {
+                if (jaccard(tokens, other) >= similarityThreshold) return true;
+            }
+            return false;
+        }
+
+        /** Ghép TITLE + thân bài + CTA; phần còn thiếu lấy từ outline mẫu (không trùng). */
+        public List<SlideItem> finish() {
+            if (title == null) {
+                title = new SlideItem(clip(topic), TITLE);
+                // Slide mẫu không được trùng gần đúng với tiêu đề dựng từ chủ đề
+                seen.add(new HashSet<>(TextNormalizer.tokens(title.title())));
+            }
+            int filled = 0;
+            for (SlideItem s : TEMPLATE_BODY) {
+                if (bodyMissing() == 0) break;
+                if (offer(s)) filled++;
+            }
+            if (cta == null) cta = TEMPLATE_CTA;
+
+            List<SlideItem> result = new ArrayList<>(count);
+            result.add(title);
+            result.addAll(body);
+            result.add(cta);
+
+            outlines.incrementAndGet();
+            templateSlides.addAndGet(filled);
+            return result.subList(0, Math.min(count, result.size()));
+        }
+    }
+
+    public Draft newDraft(String topic, int count) {
+        return new Draft(topic, count);
+    }
+
+    /** Outline mẫu trung tính theo chủ đề, dùng khi không gọi được LLM. */
+    public List<SlideItem> templateOutline(String topic, int count) {
+        fullFallbacks.incrementAndGet();
+        return newDraft(topic, count).finish();
+    }
+
+    public void recordSalvaged() {
+        salvaged.incrementAndGet();
+    }
+
+    public void recordFollowUp() {
+        followUps.incrementAndGet();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("outlines", outlines.get());
+        m.put("salvagedFromBrokenJson", salvaged.get());
+        m.put("followUpCalls", followUps.get());
+        m.put("templateSlidesFilled", templateSlides.get());
+        m.put("fullTemplateFallbacks", fullFallbacks.get());
+        return m;
+    }
+
+    private String cleanTitle(String raw) {
+        if (raw == null) return "";
+        String t = ENUM_PREFIX.matcher(raw.trim()).replaceFirst("").trim();
+        return clip(t);
+    }
+
+    /** Cắt về tối đa maxTitleLength ký tự theo ranh giới từ. */
+    private String clip(String t) {
+        if (t == null) return "";
+        t = t.trim();
+        if (t.length() <= maxTitleLength) return t;
+        int cut = t.lastIndexOf(' ', maxTitleLength);
+        return (cut > 0 ? t.substring(0, cut) : t.substring(0, maxTitleLength)).trim();
+    }
+
+    private String normalizeType(String type) {
+        if (type == null) return BULLET;
+        String t = type.trim().toUpperCase();
+        return TYPES.contains(t) ? t : BULLET;
+    }
+
+    private static double jaccard(Set<String> a, Set<String> b) {
+        int inter = 0;
+        for (String s : a) if (b.contains(s)) inter++;
+        int union = a.size() + b.size() - inter;
+        return union == 0 ? 0 : (double) inter / union;
+    }
+}
@@ -0,0 +1,218 @@
+// src/main/java/com/bkap/aislide/pregen/PreGenerator.java
+package com.bkap.aislide.pregen;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.bkap.aislide.dto.SlideContent;
+import com.bkap.aislide.dto.TopicDemand;
+import com.bkap.aislide.profiling.TaskContext;
+import com.bkap.aislide.repository.SlideRepository;
+import com.bkap.aislide.service.GenerationScheduler;
+import com.bkap.aislide.service.SlideGenerationTask;
+import com.bkap.aislide.util.Deadline;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Dựng sẵn deck cho các cặp (chủ đề, số slide) phổ biến vào ReadyDeckPool:
+ *  - khai thác bảng slides trong pregen.lookback-hours gần nhất (chỉ request lẻ);
+ *  - chạy trong giờ thấp điểm (pregen.off-peak-hours), hoặc giờ cao điểm nếu scheduler đang rảnh
+ *    (bù lại deck vừa được lấy);
+ *  - giới hạn số lời gọi LLM ước tính mỗi ngày (pregen.daily-llm-budget).
+ * Mỗi deck là 1 việc nền của GenerationScheduler (client "pregen", ưu tiên thấp nhất) nên dùng chung
+ * generation.workers với request thật; tối đa 1 deck chờ/chạy, deck xong mới gửi deck tiếp theo.
+ */
+@Component
+@RequiredArgsConstructor
+public class PreGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(PreGenerator.class);
+
+    private static final String CLIENT_ID = "pregen";
+
+    @Value("${pregen.enabled:true}")
+    private boolean enabled;
+
+    // Danh sách khoảng giờ, vd "0-6,22-23" (giờ máy chủ, gồm cả 2 đầu)
+    @Value("${pregen.off-peak-hours:0-6,22-23}")
+    private String offPeakHours;
+
+    @Value("${pregen.refill-on-peak:true}")
+    private boolean refillOnPeak;
+
+    @Value("${pregen.lookback-hours:168}")
+    private int lookbackHours;
+
+    @Value("${pregen.top-topics:20}")
+    private int topTopics;
+
+    @Value("${pregen.min-requests:3}")
+    private int minRequests;
+
+    // Ước tính: 1 lời gọi outline + 1 lời gọi nội dung mỗi slide
+    @Value("${pregen.daily-llm-budget:300}")
+    private int dailyLlmBudget;
+
+    @Value("${pregen.deadline-ms:300000}")
+    private long deadlineMs;
+
+    // Trọng số client "pregen" trong GenerationScheduler
+    @Value("${pregen.client-weight:0.1}")
+    private double clientWeight;
+
+    private final SlideRepository repo;
+    private final SlideGenerationTask task;
+    private final GenerationScheduler scheduler;
+    private final ReadyDeckPool pool;
+
+    private final BitSet offPeak = new BitSet(24);
+    private LocalDate budgetDay = LocalDate.now();
+    private int budgetUsed;
+
+    // 1 lượt (tick) = 1 chuỗi deck nối tiếp; các biến dưới chỉ được chạm bởi deck đang giữ inFlight
+    private final AtomicBoolean inFlight = new AtomicBoolean();
+    private List<TopicDemand> round = List.of();
+    private final Set<String> failed = new HashSet<>();
+
+    private final AtomicLong generated = new AtomicLong();
+    private final AtomicLong skippedDegraded = new AtomicLong();
+    private final AtomicLong budgetExhausted = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        for (String range : offPeakHours.split(",")) {
+            String r = range.trim();
+            if (r.isEmpty()) continue;
+            String[] p = r.split("-");
+            int from = Integer.parseInt(p[0].trim());
+            int to = p.length > 1 ? Integer.parseInt(p[1].trim()) : from;
+            offPeak.set(from, to + 1);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${pregen.initial-delay-ms:120000}", fixedDelayString = "${pregen.interval-ms:60000}")
+    public void tick() {
+        if (!enabled || pool.isFull() || !mayRun()) return;
+        // Lượt trước còn deck đang chờ/chạy trong scheduler
+        if (!inFlight.compareAndSet(false, true)) return;
+
+        boolean submitted = false;
+        try {
+            round = popular();
+            failed.clear();
+            submitted = submitNext();
+        } finally {
+            if (!submitted) inFlight.set(false);
+        }
+    }
+
+    /** Gửi deck tiếp theo của lượt vào scheduler; false khi lượt đã xong (hết cặp thiếu / hết giờ / hết ngân sách). */
+    private boolean submitNext() {
+        if (pool.isFull() || !mayRun()) return false;
+        for (TopicDemand d : round) {
+            String key = ReadyDeckPool.key(d.topic(), d.slideCount());
+            // Lỗi / deck bị giảm cấp → sang chủ đề khác, không đốt ngân sách vào 1 cặp
+            if (failed.contains(key) || pool.missing(d.topic(), d.slideCount()) <= 0) continue;
+            if (!charge(d.slideCount() + 1)) {
+                budgetExhausted.incrementAndGet();
+                log.info("Pre-generation hết ngân sách LLM hôm nay ({} lời gọi)", dailyLlmBudget);
+                return false;
+            }
+            scheduler.submitBackground(CLIENT_ID, clientWeight, "pregen:" + key, d.slideCount(), () -> {
+                boolean next = false;
+                try {
+                    if (!buildOne(d)) failed.add(key);
+                    next = submitNext();
+                } finally {
+                    if (!next) inFlight.set(false);
+                }
+            });
+            return true;
+        }
+        return false;
+    }
+
+    /** Giờ cao điểm: chỉ khi scheduler rảnh (lúc deck pregen vừa xong, slot của nó vẫn được tính → dừng lượt, chờ tick sau). */
+    private boolean mayRun() {
+        return offPeak.get(LocalTime.now().getHour()) || (refillOnPeak && scheduler.isIdle());
+    }
+
+    /** Gộp các biến thể chỉ khác dấu/hoa thường; giữ cách viết phổ biến nhất (xuất hiện đầu tiên). */
+    private List<TopicDemand> popular() {
+        LocalDateTime since = LocalDateTime.now().minusHours(lookbackHours);
+        Map<String, TopicDemand> merged = new LinkedHashMap<>();
+        for (TopicDemand d : repo.findPopularTopics(since, PageRequest.ofSize(topTopics * 3))) {
+            if (d.topic() == null || d.topic().isBlank() || d.slideCount() == null) continue;
+            merged.merge(ReadyDeckPool.key(d.topic(), d.slideCount()), d,
+                (a, b) -> new TopicDemand(a.topic(), a.slideCount(), a.requests() + b.requests()));
+        }
+        return merged.values().stream()
+            .filter(d -> d.requests() >= minRequests)
+            .sorted((a, b) -> Long.compare(b.requests(), a.requests()))
+            .limit(topTopics)
+            .toList();
+    }
+
+    private synchronized boolean charge(int calls) {
+        LocalDate today = LocalDate.now();
+        if (!today.equals(budgetDay)) {
+            budgetDay = today;
+            budgetUsed = 0;
+        }
+        if (budgetUsed + calls > dailyLlmBudget) return false;
+        budgetUsed += calls;
+        return true;
+    }
+
+    private boolean buildOne(TopicDemand d) {
+        long start = System.currentTimeMillis();
+        try (TaskContext.Scope scope = TaskContext.open("pregen:" + ReadyDeckPool.key(d.topic(), d.slideCount()))) {
+            List<SlideContent> slides = task.buildSlides(d.topic(), d.slideCount(), Deadline.afterMillis(deadlineMs));
+            // Deck bị giảm cấp không đáng để phục vụ lại cho nhiều người
+            if (slides.stream().anyMatch(SlideContent::degraded)) {
+                skippedDegraded.incrementAndGet();
+                return false;
+            }
+            if (!pool.offer(d.topic(), d.slideCount(), slides)) return false;
+            generated.incrementAndGet();
+            log.info("Pre-generation: \"{}\" ({} slide, {} lượt yêu cầu) xong sau {}ms",
+                d.topic(), d.slideCount(), d.requests(), System.currentTimeMillis() - start);
+            return true;
+        } catch (Exception e) {
+            log.warn("Pre-generation \"{}\" lỗi: {}", d.topic(), e.getMessage());
+            return false;
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("enabled", enabled);
+        m.put("generated", generated.get());
+        m.put("skippedDegraded", skippedDegraded.get());
+        m.put("budgetExhausted", budgetExhausted.get());
+        synchronized (this) {
+            m.put("llmBudgetUsedToday", budgetUsed);
+        }
+        m.put("dailyLlmBudget", dailyLlmBudget);
+        m.put("pool", pool.stats());
+        return m;
+    }
+}
@@ -0,0 +1,152 @@
+// src/main/java/com/bkap/aislide/pregen/ReadyDeckPool.java
+package com.bkap.aislide.pregen;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.bkap.aislide.dto.SlideContent;
+import com.bkap.aislide.util.TextNormalizer;
+
+/**
+ * Kho deck dựng sẵn (mô hình slide, chưa render) theo (chủ đề đã bỏ dấu, số slide).
+ * Giới hạn tổng pregen.pool-size deck; deck quá pregen.max-age-ms bị bỏ khi lấy/dọn.
+ * Khi phục vụ: giữ nguyên thứ tự slide (mạch outline), slide tiêu đề lấy đúng chủ đề người dùng gõ,
+ * ảnh Unsplash ngẫu nhiên đổi theo taskId để 2 người cùng chủ đề không nhận deck giống hệt.
+ */
+@Component
+public class ReadyDeckPool {
+
+    @Value("${pregen.pool-size:40}")
+    private int poolSize;
+
+    @Value("${pregen.per-key:2}")
+    private int perKey;
+
+    @Value("${pregen.max-age-ms:21600000}")
+    private long maxAgeMs;
+
+    @Value("${pregen.variation:true}")
+    private boolean variation;
+
+    private record ReadyDeck(List<SlideContent> slides, long createdAt) {}
+
+    private final Map<String, Deque<ReadyDeck>> decks = new HashMap<>();
+    private int size;
+
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong added = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong servedAgeTotalMs = new AtomicLong();
+    private final AtomicLong servedAgeMaxMs = new AtomicLong();
+
+    public static String key(String topic, int count) {
+        return TextNormalizer.foldAccents(topic) + "|" + count;
+    }
+
+    /** Lấy 1 deck khớp (chủ đề, số slide); đã áp dụng biến thể theo {@code variationSeed}. */
+    public Optional<List<SlideContent>> take(String topic, int count, String variationSeed) {
+        lookups.incrementAndGet();
+        ReadyDeck deck;
+        synchronized (this) {
+            evictStale();
+            Deque<ReadyDeck> q = decks.get(key(topic, count));
+            deck = q == null ? null : q.pollFirst();
+            if (deck == null) return Optional.empty();
+            size--;
+            if (q.isEmpty()) decks.remove(key(topic, count));
+        }
+        long age = System.currentTimeMillis() - deck.createdAt();
+        hits.incrementAndGet();
+        servedAgeTotalMs.addAndGet(age);
+        servedAgeMaxMs.accumulateAndGet(age, Math::max);
+        return Optional.of(variation ? vary(deck.slides(), topic, variationSeed) : deck.slides());
+    }
+
+    /** @return false nếu kho đã đầy hoặc cặp này đã đủ pregen.per-key deck. */
+    public synchronized boolean offer(String topic, int count, List<SlideContent> slides) {
+        evictStale();
+        if (size >= poolSize || missing(topic, count) == 0) return false;
+        decks.computeIfAbsent(key(topic, count), k -> new ArrayDeque<>())
+            .addLast(new ReadyDeck(List.copyOf(slides), System.currentTimeMillis()));
+        size++;
+        added.incrementAndGet();
+        return true;
+    }
+
+    /** Số deck còn thiếu của cặp (chủ đề, số slide) so với pregen.per-key. */
+    public synchronized int missing(String topic, int count) {
+        Deque<ReadyDeck> q = decks.get(key(topic, count));
+        return Math.max(0, perKey - (q == null ? 0 : q.size()));
+    }
+
+    public synchronized boolean isFull() {
+        return size >= poolSize;
+    }
+
+    private void evictStale() {
+        long cutoff = System.currentTimeMillis() - maxAgeMs;
+        for (Iterator<Deque<ReadyDeck>> it = decks.values().iterator(); it.hasNext(); ) {
+            Deque<ReadyDeck> q = it.next();
+            while (!q.isEmpty() && q.peekFirst().createdAt() < cutoff) {
+                q.pollFirst();
+                size--;
+                expired.incrementAndGet();
+            }
+            if (q.isEmpty()) it.remove();
+        }
+    }
+
+    /** Biến thể nhẹ, không đổi thứ tự/nội dung: tiêu đề = chủ đề người dùng gõ, ảnh /random/ lấy ảnh khác theo seed. */
+    private List<SlideContent> vary(List<SlideContent> slides, String topic, String seed) {
+        List<SlideContent> result = new ArrayList<>(slides.size());
+        for (SlideContent s : slides) {
+            String title = s.index() == 0 && "TITLE".equals(s.type()) ? topic.trim() : s.title();
+            result.add(new SlideContent(s.index(), title, s.type(), s.contentHtml(), varyImage(s.imageUrl(), seed), s.degraded()));
+        }
+        return result;
+    }
+
+    // Unsplash /random/ trả ảnh khác khi tham số sig khác; URL ảnh cố định giữ nguyên
+    private static String varyImage(String url, String seed) {
+        if (url == null || !url.contains("/random/")) return url;
+        return url + (url.contains("?") ? "&" : "?") + "sig=" + Integer.toUnsignedString(seed.hashCode());
+    }
+
+    public Map<String, Object> stats() {
+        long l = lookups.get(), h = hits.get();
+        long oldest;
+        int currentSize;
+        synchronized (this) {
+            currentSize = size;
+            long now = System.currentTimeMillis();
+            oldest = decks.values().stream()
+                .flatMap(Deque::stream)
+                .mapToLong(d -> now - d.createdAt())
+                .max().orElse(0);
+        }
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("size", currentSize);
+        m.put("capacity", poolSize);
+        m.put("lookups", l);
+        m.put("hits", h);
+        m.put("hitRate", l == 0 ? 0.0 : (double) h / l);
+        m.put("added", added.get());
+        m.put("expired", expired.get());
+        m.put("oldestAgeMs", oldest);
+        m.put("avgServedAgeMs", h == 0 ? 0 : servedAgeTotalMs.get() / h);
+        m.put("maxServedAgeMs", servedAgeMaxMs.get());
+        return m;
+    }
+}
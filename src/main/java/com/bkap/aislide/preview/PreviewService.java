@@ -0,0 +1,148 @@
+// src/main/java/com/bkap/aislide/preview/PreviewService.java
+package com.bkap.aislide.preview;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import javax.imageio.ImageIO;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.bkap.aislide.service.FileStorageService;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Ảnh preview từng trang PDF, render theo yêu cầu bằng PDFBox.
+ * Cache 2 tầng theo (taskId, page, width): RAM (Guava, giới hạn theo byte) → đĩa (uploads/previews).
+ * Nhiều request cùng miss 1 key chỉ render 1 lần (coalescing).
+ */
+@Service
+public class PreviewService {
+
+    private static final Logger log = LoggerFactory.getLogger(PreviewService.class);
+
+    private static final int MIN_WIDTH = 64;
+    private static final int MAX_WIDTH = 1920;
+    private static final int WIDTH_STEP = 64;
+
+    @Value("${preview.default-width:480}")
+    private int defaultWidth;
+
+    @Value("${preview.memory-max-bytes:33554432}")
+    private long memoryMaxBytes;
+
+    private final FileStorageService storage;
+    private final Executor executor;
+
+    private Cache<String, byte[]> memory;
+    private final ConcurrentHashMap<String, CompletableFuture<byte[]>> inflight = new ConcurrentHashMap<>();
+
+    public PreviewService(FileStorageService storage, @Qualifier("exportExecutor") Executor executor) {
+        this.storage = storage;
+        this.executor = executor;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        memory = CacheBuilder.newBuilder()
+            .maximumWeight(memoryMaxBytes)
+            .weigher((String k, byte[] v) -> v.length)
+            .build();
+        Files.createDirectories(storage.resolve("previews"));
+    }
+
+    /** Chuẩn hóa width về bậc 64px để giới hạn số biến thể trong cache. */
+    public int normalizeWidth(Integer width) {
+        int w = width == null ? defaultWidth : width;
+        w = Math.max(MIN_WIDTH, Math.min(MAX_WIDTH, w));
+        return ((w + WIDTH_STEP - 1) / WIDTH_STEP) * WIDTH_STEP;
+    }
+
+    /** PNG của trang {@code page} (bắt đầu từ 1); rỗng nếu chưa có PDF hoặc trang không tồn tại. */
+    public Optional<byte[]> get(String taskId, int page, Integer width) throws IOException {
+        int w = normalizeWidth(width);
+        String key = taskId + "-p" + page + "-w" + w;
+
+        byte[] hit = memory.getIfPresent(key);
+        if (hit != null) return Optional.of(hit);
+
+        CompletableFuture<byte[]> mine = new CompletableFuture<>();
+        CompletableFuture<byte[]> existing = inflight.putIfAbsent(key, mine);
+        if (existing != null) {
+            try {
+                return Optional.ofNullable(existing.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof IOException io) throw io;
+                throw e;
+            }
+        }
+
+        try {
+            byte[] data = loadOrRender(key, taskId, page, w);
+            if (data != null) memory.put(key, data);
+            mine.complete(data);
+            return Optional.ofNullable(data);
+        } catch (IOException | RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inflight.remove(key, mine);
+        }
+    }
+
+    /** Render trước trang 1 (width mặc định) ngay sau khi PDF được lưu. */
+    public void prerenderFirstPage(String taskId) {
+        executor.execute(() -> {
+            try {
+                get(taskId, 1, null);
+            } catch (Exception e) {
+                log.warn("Pre-render preview lỗi | taskId: {} | {}", taskId, e.getMessage());
+            }
+        });
+    }
+
+    private byte[] loadOrRender(String key, String taskId, int page, int width) throws IOException {
+        Path cached = storage.resolve("previews").resolve(key + ".png");
+        if (Files.exists(cached)) return Files.readAllBytes(cached);
+
+        Path pdf = storage.resolve(taskId + ".pdf");
+        if (!Files.exists(pdf)) return null;
+
+        byte[] png;
+        try (PDDocument doc = PDDocument.load(pdf.toFile())) {
+            if (page < 1 || page > doc.getNumberOfPages()) return null;
+            PDPage p = doc.getPage(page - 1);
+            float dpi = width * 72f / p.getMediaBox().getWidth();
+            BufferedImage img = new PDFRenderer(doc).renderImageWithDPI(page - 1, dpi, ImageType.RGB);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(img, "png", out);
+            png = out.toByteArray();
+        }
+
+        Path tmp = Files.createTempFile(cached.getParent(), key, ".tmp");
+        Files.write(tmp, png);
+        Files.move(tmp, cached, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Preview render | {} | {} bytes", key, png.length);
+        return png;
+    }
+}
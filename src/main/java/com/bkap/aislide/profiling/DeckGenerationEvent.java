@@ -0,0 +1,34 @@
+// src/main/java/com/bkap/aislide/profiling/DeckGenerationEvent.java
+package com.bkap.aislide.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Toàn bộ 1 deck từ lúc worker nhận đến khi lưu xong (thời gian thực, wall time).
+ * Các event con chồng lên nhau (hedge LLM, PDF song song PPTX) nên không cộng được → xếp hạng task theo event này.
+ */
+@Name("com.bkap.aislide.DeckGeneration")
+@Label("Deck Generation")
+@Category({"AI Slide", "Pipeline"})
+@StackTrace(false)
+public class DeckGenerationEvent extends jdk.jfr.Event {
+
+    @Label("Task Id")
+    public String taskId;
+
+    // llm = pipeline đầy đủ, ready = render deck dựng sẵn
+    @Label("Mode")
+    public String mode;
+
+    @Label("Slide Count")
+    public int slideCount;
+
+    @Label("Degraded Slides")
+    public int degradedSlides;
+
+    @Label("Status")
+    public String status;
+}
@@ -0,0 +1,24 @@
+// src/main/java/com/bkap/aislide/profiling/HtmlSanitizeEvent.java
+package com.bkap.aislide.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Làm sạch HTML nội dung slide (Jsoup Safelist). */
+@Name("com.bkap.aislide.HtmlSanitize")
+@Label("HTML Sanitize")
+@Category({"AI Slide", "Pipeline"})
+@StackTrace(false)
+public class HtmlSanitizeEvent extends jdk.jfr.Event {
+
+    @Label("Task Id")
+    public String taskId;
+
+    @Label("Input Chars")
+    public int inputChars;
+
+    @Label("Output Chars")
+    public int outputChars;
+}
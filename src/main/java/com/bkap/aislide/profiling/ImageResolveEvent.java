@@ -0,0 +1,33 @@
+// src/main/java/com/bkap/aislide/profiling/ImageResolveEvent.java
+package com.bkap.aislide.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** 1 lần lấy ảnh qua mạng: tìm Google CSE (source=google) hoặc tải ảnh khi xuất file (source=pdf / pptx). */
+@Name("com.bkap.aislide.ImageResolve")
+@Label("Image Resolve")
+@Category({"AI Slide", "Pipeline"})
+@StackTrace(false)
+public class ImageResolveEvent extends jdk.jfr.Event {
+
+    @Label("Task Id")
+    public String taskId;
+
+    @Label("Source")
+    public String source;
+
+    // URL ảnh hoặc câu truy vấn tìm ảnh
+    @Label("Target")
+    public String target;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Success")
+    public boolean success;
+}
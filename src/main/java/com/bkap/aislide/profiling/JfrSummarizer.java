@@ -0,0 +1,160 @@
+// src/main/java/com/bkap/aislide/profiling/JfrSummarizer.java
+package com.bkap.aislide.profiling;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Tóm tắt 1 file .jfr theo giai đoạn pipeline:
+ *  - mỗi giai đoạn (LLM theo loại lời gọi, ảnh, sanitize, PDF theo stage): số lần, tổng / p50 / p95 / max ms;
+ *  - các task tốn thời gian nhất theo DeckGenerationEvent (wall time của cả deck; các event con chồng lên nhau
+ *    nên không cộng dồn);
+ *  - method nóng nhất từ jdk.ExecutionSample (frame trên cùng thuộc com.bkap, và toàn bộ).
+ * Dùng qua AdminApi hoặc dòng lệnh: {@code java -cp app.jar ... JfrSummarizer recording.jfr}.
+ */
+public final class JfrSummarizer {
+
+    private static final String PREFIX = "com.bkap.aislide.";
+    private static final String APP_PACKAGE = "com.bkap.";
+
+    private JfrSummarizer() {}
+
+    public static Map<String, Object> summarize(Path file, int top) throws IOException {
+        Map<String, List<Long>> stages = new HashMap<>();
+        Map<String, Long> deckMs = new HashMap<>();
+        Map<String, Long> hotAll = new HashMap<>();
+        Map<String, Long> hotApp = new HashMap<>();
+        long llmCacheHits = 0, llmTokens = 0, samples = 0;
+
+        try (RecordingFile rf = new RecordingFile(file)) {
+            while (rf.hasMoreEvents()) {
+                RecordedEvent e = rf.readEvent();
+                String type = e.getEventType().getName();
+
+                if (type.equals("jdk.ExecutionSample")) {
+                    samples++;
+                    countHotFrames(e.getStackTrace(), hotAll, hotApp);
+                    continue;
+                }
+                if (!type.startsWith(PREFIX)) continue;
+
+                String stage = type.substring(PREFIX.length());
+                if (e.hasField("callType") && e.getString("callType") != null) stage += "/" + e.getString("callType");
+                if (e.hasField("stage") && e.getString("stage") != null) stage += "/" + e.getString("stage");
+                if (e.hasField("source") && e.getString("source") != null) stage += "/" + e.getString("source");
+                if (e.hasField("mode") && e.getString("mode") != null) stage += "/" + e.getString("mode");
+                if (e.hasField("cacheHit") && e.getBoolean("cacheHit")) {
+                    llmCacheHits++;
+                    stage += "/cacheHit";
+                }
+                if (e.hasField("completionTokens")) llmTokens += Math.max(0, e.getInt("completionTokens"));
+
+                long ms = e.getDuration().toMillis();
+                stages.computeIfAbsent(stage, k -> new ArrayList<>()).add(ms);
+                if (type.equals(PREFIX + "DeckGeneration") && e.getString("taskId") != null) {
+                    deckMs.merge(e.getString("taskId"), ms, Math::max);
+                }
+            }
+        }
+
+        Map<String, Object> stageStats = new LinkedHashMap<>();
+        stages.entrySet().stream()
+            .sorted(Comparator.comparingLong((Map.Entry<String, List<Long>> en) -> sum(en.getValue())).reversed())
+            .forEach(en -> stageStats.put(en.getKey(), stats(en.getValue())));
+
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("file", file.toString());
+        m.put("stages", stageStats);
+        m.put("llmCacheHits", llmCacheHits);
+        m.put("llmCompletionTokens", llmTokens);
+        m.put("slowestTasks", topN(deckMs, top));
+        m.put("executionSamples", samples);
+        m.put("hotAppMethods", topN(hotApp, top));
+        m.put("hotMethods", topN(hotAll, top));
+        return m;
+    }
+
+    private static void countHotFrames(RecordedStackTrace st, Map<String, Long> all, Map<String, Long> app) {
+        if (st == null || st.getFrames().isEmpty()) return;
+        all.merge(name(st.getFrames().get(0)), 1L, Long::sum);
+        for (RecordedFrame f : st.getFrames()) {
+            if (f.getMethod() != null && f.getMethod().getType().getName().startsWith(APP_PACKAGE)) {
+                app.merge(name(f), 1L, Long::sum);
+                return;
+            }
+        }
+    }
+
+    private static String name(RecordedFrame f) {
+        return f.getMethod() == null ? "?" : f.getMethod().getType().getName() + "." + f.getMethod().getName();
+    }
+
+    private static Map<String, Object> stats(List<Long> ms) {
+        List<Long> sorted = ms.stream().sorted().toList();
+        Map<String, Object> s = new LinkedHashMap<>();
+        s.put("count", sorted.size());
+        s.put("totalMs", sum(sorted));
+        s.put("p50Ms", percentile(sorted, 0.5));
+        s.put("p95Ms", percentile(sorted, 0.95));
+        s.put("maxMs", sorted.get(sorted.size() - 1));
+        return s;
+    }
+
+    private static long sum(List<Long> values) {
+        long total = 0;
+        for (long v : values) total += v;
+        return total;
+    }
+
+    private static long percentile(List<Long> sorted, double p) {
+        int idx = (int) Math.ceil(p * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(sorted.size() - 1, idx)));
+    }
+
+    private static Map<String, Long> topN(Map<String, Long> counts, int n) {
+        return counts.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+            .limit(n)
+            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    /** In tóm tắt ra stdout: {@code JfrSummarizer <file.jfr> [top]}. */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Cách dùng: JfrSummarizer <file.jfr> [top]");
+            System.exit(1);
+        }
+        int top = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        Map<String, Object> s = summarize(Paths.get(args[0]), top);
+
+        System.out.println("== Giai đoạn (tổng thời gian giảm dần) ==");
+        @SuppressWarnings("unchecked")
+        Map<String, Map<String, Object>> stages = (Map<String, Map<String, Object>>) s.get("stages");
+        System.out.printf("%-40s %7s %10s %8s %8s %8s%n", "stage", "count", "totalMs", "p50", "p95", "max");
+        stages.forEach((k, v) -> System.out.printf("%-40s %7s %10s %8s %8s %8s%n",
+            k, v.get("count"), v.get("totalMs"), v.get("p50Ms"), v.get("p95Ms"), v.get("maxMs")));
+        System.out.println("LLM cache hit: " + s.get("llmCacheHits") + " | completion tokens: " + s.get("llmCompletionTokens"));
+
+        print("== Task chậm nhất (ms) ==", s.get("slowestTasks"));
+        print("== Method nóng (code ứng dụng, " + s.get("executionSamples") + " mẫu) ==", s.get("hotAppMethods"));
+        print("== Method nóng (toàn bộ) ==", s.get("hotMethods"));
+    }
+
+    private static void print(String title, Object map) {
+        System.out.println(title);
+        ((Map<?, ?>) map).forEach((k, v) -> System.out.printf("  %8s  %s%n", v, k));
+    }
+}
@@ -0,0 +1,56 @@
+// src/main/java/com/bkap/aislide/profiling/LlmCallEvent.java
+package com.bkap.aislide.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** 1 lần gọi chat completion (mỗi bản hedge là 1 event), hoặc 1 lần dùng lại nội dung thay cho lời gọi (cacheHit). */
+@Name("com.bkap.aislide.LlmCall")
+@Label("LLM Call")
+@Category({"AI Slide", "Pipeline"})
+@StackTrace(false)
+public class LlmCallEvent extends jdk.jfr.Event {
+
+    @Label("Task Id")
+    public String taskId;
+
+    @Label("Call Type")
+    public String callType;
+
+    @Label("Model")
+    public String model;
+
+    @Label("Prompt Chars")
+    public int promptChars;
+
+    @Label("Prompt Tokens")
+    @Description("usage.prompt_tokens; -1 nếu API không trả về")
+    public int promptTokens = -1;
+
+    @Label("Completion Tokens")
+    public int completionTokens = -1;
+
+    @Label("Hedge")
+    public boolean hedge;
+
+    @Label("Cache Hit")
+    @Description("Nội dung dùng lại từ ContentReuse, không gọi API")
+    public boolean cacheHit;
+
+    @Label("Success")
+    public boolean success;
+
+    /** Event tức thời cho 1 lần dùng lại nội dung thay cho lời gọi {@code callType}. */
+    public static void cacheHit(String callType) {
+        LlmCallEvent e = new LlmCallEvent();
+        if (!e.isEnabled()) return;
+        e.taskId = TaskContext.current();
+        e.callType = callType;
+        e.cacheHit = true;
+        e.success = true;
+        e.commit();
+    }
+}
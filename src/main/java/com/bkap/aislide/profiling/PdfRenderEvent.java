@@ -0,0 +1,33 @@
+// src/main/java/com/bkap/aislide/profiling/PdfRenderEvent.java
+package com.bkap.aislide.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** 1 giai đoạn dựng PDF: layout, write (openhtmltopdf) hoặc optimize (PdfOptimizer). */
+@Name("com.bkap.aislide.PdfRender")
+@Label("PDF Render")
+@Category({"AI Slide", "Pipeline"})
+@StackTrace(false)
+public class PdfRenderEvent extends jdk.jfr.Event {
+
+    @Label("Task Id")
+    public String taskId;
+
+    @Label("Stage")
+    public String stage;
+
+    @Label("Slide Count")
+    public int slideCount;
+
+    @Label("Input Bytes")
+    @DataAmount
+    public long inputBytes;
+
+    @Label("Output Bytes")
+    @DataAmount
+    public long outputBytes;
+}
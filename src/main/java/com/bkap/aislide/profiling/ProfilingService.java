@@ -0,0 +1,114 @@
+// src/main/java/com/bkap/aislide/profiling/ProfilingService.java
+package com.bkap.aislide.profiling;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * Ghi JFR theo yêu cầu (không cần deploy lại hay gắn agent): mỗi lúc tối đa 1 recording,
+ * tự dừng sau thời lượng đã chọn (tối đa profiling.max-seconds) và ghi ra profiling.dir.
+ * Event pipeline (com.bkap.aislide.*) luôn được bật kèm cấu hình JFR "default"/"profile".
+ */
+@Service
+public class ProfilingService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfilingService.class);
+    private static final DateTimeFormatter FILE_TS = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final List<Class<? extends jdk.jfr.Event>> PIPELINE_EVENTS = List.of(
+        DeckGenerationEvent.class, LlmCallEvent.class, ImageResolveEvent.class, HtmlSanitizeEvent.class, PdfRenderEvent.class);
+
+    @Value("${profiling.dir:${java.io.tmpdir}/aislide-jfr}")
+    private String dir;
+
+    @Value("${profiling.max-seconds:600}")
+    private long maxSeconds;
+
+    private Recording active;
+    private Path lastFile;
+
+    /** Trạng thái recording hiện tại / file gần nhất. */
+    public record Status(boolean recording, String settings, Long elapsedSeconds, Long durationSeconds, String lastFile) {}
+
+    /**
+     * @param settings "default" (overhead ~1%) hoặc "profile" (lấy mẫu dày hơn, ~2%)
+     * @throws IllegalStateException khi đã có recording đang chạy
+     */
+    public synchronized Status start(long seconds, String settings) throws IOException, ParseException {
+        if (isRecording()) throw new IllegalStateException("Đang có recording chạy, dừng trước khi bắt đầu cái mới");
+        long duration = Math.max(1, Math.min(seconds, maxSeconds));
+
+        Files.createDirectories(Paths.get(dir));
+        Path file = Paths.get(dir, "aislide-" + LocalDateTime.now().format(FILE_TS) + ".jfr");
+
+        Recording r = new Recording(Configuration.getConfiguration(settings));
+        r.setName("aislide-" + settings);
+        for (Class<? extends jdk.jfr.Event> type : PIPELINE_EVENTS) r.enable(type);
+        r.setToDisk(true);
+        r.setDestination(file);
+        r.setDuration(Duration.ofSeconds(duration));
+        r.start();
+
+        active = r;
+        lastFile = file;
+        log.info("Bắt đầu JFR {}s ({}) → {}", duration, settings, file);
+        return status();
+    }
+
+    /** Dừng sớm (nếu còn chạy) và trả về file .jfr; empty nếu chưa từng ghi. */
+    public synchronized Optional<Path> stop() {
+        if (active != null) {
+            if (active.getState() == RecordingState.RUNNING) active.stop();
+            active.close();
+            active = null;
+            log.info("Dừng JFR → {}", lastFile);
+        }
+        return lastFile != null && Files.exists(lastFile) ? Optional.of(lastFile) : Optional.empty();
+    }
+
+    public synchronized Status status() {
+        boolean running = isRecording();
+        return new Status(running,
+            running ? active.getName() : null,
+            running ? Duration.between(active.getStartTime(), Instant.now()).toSeconds() : null,
+            running ? active.getDuration().toSeconds() : null,
+            lastFile == null ? null : lastFile.toString());
+    }
+
+    /** Tóm tắt file gần nhất (recording phải đã dừng để file đầy đủ). */
+    public synchronized Optional<Map<String, Object>> summarizeLast(int top) throws IOException {
+        if (isRecording() || lastFile == null || !Files.exists(lastFile)) return Optional.empty();
+        Map<String, Object> m = new LinkedHashMap<>(JfrSummarizer.summarize(lastFile, top));
+        m.put("sizeBytes", Files.size(lastFile));
+        return Optional.of(m);
+    }
+
+    private boolean isRecording() {
+        return active != null && active.getState() == RecordingState.RUNNING;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (active != null) active.close();
+    }
+}
@@ -0,0 +1,47 @@
+// src/main/java/com/bkap/aislide/profiling/TaskContext.java
+package com.bkap.aislide.profiling;
+
+import java.util.concurrent.Callable;
+
+/**
+ * taskId của deck đang xử lý trên thread hiện tại, để gắn vào JFR event.
+ * Khi chuyển việc sang executor khác phải bọc bằng {@link #wrap} (ThreadLocal không tự truyền).
+ */
+public final class TaskContext {
+
+    private static final ThreadLocal<String> TASK_ID = new ThreadLocal<>();
+
+    private TaskContext() {}
+
+    /** @return taskId, hoặc "" khi không nằm trong pipeline của deck nào. */
+    public static String current() {
+        String id = TASK_ID.get();
+        return id == null ? "" : id;
+    }
+
+    /** Gắn taskId cho thread hiện tại; đóng scope để khôi phục giá trị cũ. */
+    public static Scope open(String taskId) {
+        String previous = TASK_ID.get();
+        TASK_ID.set(taskId);
+        return () -> {
+            if (previous == null) TASK_ID.remove();
+            else TASK_ID.set(previous);
+        };
+    }
+
+    public static <T> Callable<T> wrap(Callable<T> c) {
+        String taskId = TASK_ID.get();
+        if (taskId == null) return c;
+        return () -> {
+            try (Scope s = open(taskId)) {
+                return c.call();
+            }
+        };
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,141 @@
+// src/main/java/com/bkap/aislide/quota/ClientQuotas.java
+package com.bkap.aislide.quota;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Định danh client + hạn mức theo client cho API tạo slide.
+ *  - client = header X-API-Key nếu key nằm trong quota.api-keys (lưu dạng băm), ngược lại IP
+ *    (key lạ không được ưu đãi gì: gửi key ngẫu nhiên mỗi request không lách được hạn mức);
+ *  - IP thật sau reverse proxy: server.forward-headers-strategy=native (Tomcat RemoteIpValve, chỉ tin proxy nội bộ);
+ *    quota.trust-forwarded-for đọc thẳng X-Forwarded-For, chỉ bật khi mọi request chắc chắn đi qua proxy;
+ *  - 2 token bucket mỗi client: số request và tổng số slide (trọng số), trừ cả 2 hoặc không trừ gì;
+ *    request lớn hơn sức chứa bucket (bulk) được nhận khi bucket đầy rồi để bucket âm (trả dần);
+ *  - client có API key được trọng số quota.api-key-weight trong GenerationScheduler, IP ẩn danh = 1.
+ */
+@Component
+public class ClientQuotas {
+
+    public static final String API_KEY_HEADER = "X-API-Key";
+
+    @Value("${quota.enabled:true}")
+    private boolean enabled;
+
+    @Value("${quota.requests-per-minute:10}")
+    private double requestsPerMinute;
+
+    @Value("${quota.request-burst:5}")
+    private double requestBurst;
+
+    @Value("${quota.slides-per-minute:120}")
+    private double slidesPerMinute;
+
+    @Value("${quota.slide-burst:60}")
+    private double slideBurst;
+
+    // Danh sách key hợp lệ, cách nhau bởi dấu phẩy; trống = không client nào được ưu tiên theo key
+    @Value("${quota.api-keys:}")
+    private String apiKeys;
+
+    @Value("${quota.api-key-weight:2.0}")
+    private double apiKeyWeight;
+
+    @Value("${quota.trust-forwarded-for:false}")
+    private boolean trustForwardedFor;
+
+    @Value("${quota.idle-expire-minutes:30}")
+    private long idleExpireMinutes;
+
+    /** Client đã định danh; {@code weight} dùng cho fair queuing. */
+    public record ClientId(String id, double weight) {}
+
+    /** {@code allowed=false} → trả 429 kèm Retry-After. */
+    public record Decision(boolean allowed, long retryAfterSeconds, String reason) {
+        static final Decision OK = new Decision(true, 0, null);
+    }
+
+    private static final class Buckets {
+        final TokenBucket requests;
+        final TokenBucket slides;
+
+        Buckets(TokenBucket requests, TokenBucket slides) {
+            this.requests = requests;
+            this.slides = slides;
+        }
+    }
+
+    private Cache<String, Buckets> buckets;
+    private Set<String> knownKeyHashes;
+
+    @PostConstruct
+    void init() {
+        knownKeyHashes = Arrays.stream(apiKeys.split(","))
+            .map(String::trim)
+            .filter(k -> !k.isEmpty())
+            .map(ClientQuotas::hashKey)
+            .collect(Collectors.toUnmodifiableSet());
+        buckets = CacheBuilder.newBuilder()
+            .expireAfterAccess(Duration.ofMinutes(idleExpireMinutes))
+            .maximumSize(100_000)
+            .build();
+    }
+
+    public ClientId identify(HttpServletRequest request) {
+        String key = request.getHeader(API_KEY_HEADER);
+        if (key != null && !key.isBlank()) {
+            String hash = hashKey(key.trim());
+            if (knownKeyHashes.contains(hash)) return new ClientId("key:" + hash.substring(0, 16), apiKeyWeight);
+        }
+        String ip = request.getRemoteAddr();
+        if (trustForwardedFor) {
+            String fwd = request.getHeader("X-Forwarded-For");
+            if (fwd != null && !fwd.isBlank()) ip = fwd.split(",")[0].trim();
+        }
+        return new ClientId("ip:" + ip, 1.0);
+    }
+
+    private static String hashKey(String key) {
+        return Hashing.sha256().hashString(key, StandardCharsets.UTF_8).toString();
+    }
+
+    /** Trừ 1 request + {@code slides} slide nếu cả 2 bucket đủ; ngược lại không trừ gì. */
+    public Decision tryAcquire(ClientId client, int slides) {
+        if (!enabled) return Decision.OK;
+        Buckets b;
+        try {
+            b = buckets.get(client.id(), () -> new Buckets(
+                new TokenBucket(requestBurst, requestsPerMinute / 60.0),
+                new TokenBucket(slideBurst, slidesPerMinute / 60.0)));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        synchronized (b) {
+            b.requests.refill();
+            b.slides.refill();
+            if (!b.requests.has(1)) {
+                return new Decision(false, b.requests.secondsUntil(1), "Quá số request cho phép, thử lại sau");
+            }
+            if (!b.slides.has(slides)) {
+                return new Decision(false, b.slides.secondsUntil(slides), "Quá số slide cho phép, thử lại sau");
+            }
+            b.requests.take(1);
+            b.slides.take(slides);
+            return Decision.OK;
+        }
+    }
+}
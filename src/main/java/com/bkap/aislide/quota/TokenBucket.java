@@ -0,0 +1,47 @@
+// src/main/java/com/bkap/aislide/quota/TokenBucket.java
+package com.bkap.aislide.quota;
+
+import java.util.function.LongSupplier;
+
+/** Token bucket nạp liên tục: tối đa {@code capacity} token, thêm {@code perSecond} token mỗi giây. Không tự đồng bộ. */
+final class TokenBucket {
+
+    private final double capacity;
+    private final double perSecond;
+    private final LongSupplier nanoClock;
+    private double tokens;
+    private long lastNanos;
+
+    TokenBucket(double capacity, double perSecond) {
+        this(capacity, perSecond, System::nanoTime);
+    }
+
+    TokenBucket(double capacity, double perSecond, LongSupplier nanoClock) {
+        this.capacity = capacity;
+        this.perSecond = perSecond;
+        this.nanoClock = nanoClock;
+        this.tokens = capacity;
+        this.lastNanos = nanoClock.getAsLong();
+    }
+
+    void refill() {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - lastNanos) / 1e9 * perSecond);
+        lastNanos = now;
+    }
+
+    /** n > capacity chỉ cần bucket đầy; {@link #take} khi đó làm bucket âm. */
+    boolean has(double n) {
+        return tokens >= Math.min(n, capacity);
+    }
+
+    void take(double n) {
+        tokens -= n;
+    }
+
+    /** Số giây cần chờ cho tới khi {@link #has} đúng. */
+    long secondsUntil(double n) {
+        double need = Math.min(n, capacity) - tokens;
+        return need <= 0 ? 0 : (long) Math.ceil(need / perSecond);
+    }
+}
@@ -1,10 +1,16 @@
 // src/main/java/com/bkap/aislide/repository/SlideRepository.java
 package com.bkap.aislide.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.bkap.aislide.dto.SlideSummary;
+import com.bkap.aislide.dto.TopicDemand;
 import com.bkap.aislide.entity.SlideGeneration;
 
 public interface SlideRepository extends JpaRepository<SlideGeneration, String> {
@@ -14,4 +20,74 @@ public interface SlideRepository extends JpaRepository<SlideGeneration, String>
      * DÙNG TRONG API: GET /api/slides/recent
      */
     List<SlideGeneration> findTop10ByOrderByCreatedAtDesc();
-}
\ No newline at end of file
+
+    /**
+     * CÁC DECK CỦA 1 BATCH (BULK API), THEO THỨ TỰ GỬI
+     * Batch cũ chưa có batch_index (NULL) → theo created_at, tách hòa bằng task_id
+     */
+    @Query("""
+        select s from SlideGeneration s
+        where s.batchId = :batchId
+        order by s.batchIndex asc, s.createdAt asc, s.taskId asc
+        """)
+    List<SlideGeneration> findBatch(@Param("batchId") String batchId);
+
+    /**
+     * CÁC CẶP (CHỦ ĐỀ, SỐ SLIDE) ĐƯỢC YÊU CẦU NHIỀU NHẤT TỪ :since (request lẻ, không tính bulk)
+     * DÙNG CHO PRE-GENERATION NGOÀI GIỜ CAO ĐIỂM
+     */
+    @Query("""
+        select new com.bkap.aislide.dto.TopicDemand(s.topic, s.slideCount, count(s))
+        from SlideGeneration s
+        where s.createdAt >= :since and s.batchId is null
+        group by s.topic, s.slideCount
+        order by count(s) desc
+        """)
+    List<TopicDemand> findPopularTopics(@Param("since") LocalDateTime since, Pageable limit);
+
+    /*
+     * LỊCH SỬ - KEYSET PAGINATION TRÊN (created_at DESC, task_id DESC)
+     * DÙNG TRONG API: GET /api/slides/history
+     * Trang sau: created_at <= c (cho index range) rồi mới tách hòa theo task_id.
+     * Pageable chỉ dùng làm LIMIT (page 0), không có COUNT.
+     */
+
+    @Query("""
+        select new com.bkap.aislide.dto.SlideSummary(s.taskId, s.topic, s.slideCount, s.status, s.fileUrl, s.createdAt, s.completedAt)
+        from SlideGeneration s
+        order by s.createdAt desc, s.taskId desc
+        """)
+    List<SlideSummary> findHistory(Pageable limit);
+
+    @Query("""
+        select new com.bkap.aislide.dto.SlideSummary(s.taskId, s.topic, s.slideCount, s.status, s.fileUrl, s.createdAt, s.completedAt)
+        from SlideGeneration s
+        where s.createdAt <= :createdAt
+          and (s.createdAt < :createdAt or s.taskId < :taskId)
+        order by s.createdAt desc, s.taskId desc
+        """)
+    List<SlideSummary> findHistoryAfter(@Param("createdAt") LocalDateTime createdAt,
+                                        @Param("taskId") String taskId,
+                                        Pageable limit);
+
+    @Query("""
+        select new com.bkap.aislide.dto.SlideSummary(s.taskId, s.topic, s.slideCount, s.status, s.fileUrl, s.createdAt, s.completedAt)
+        from SlideGeneration s
+        where s.status = :status
+        order by s.createdAt desc, s.taskId desc
+        """)
+    List<SlideSummary> findHistoryByStatus(@Param("status") String status, Pageable limit);
+
+    @Query("""
+        select new com.bkap.aislide.dto.SlideSummary(s.taskId, s.topic, s.slideCount, s.status, s.fileUrl, s.createdAt, s.completedAt)
+        from SlideGeneration s
+        where s.status = :status
+          and s.createdAt <= :createdAt
+          and (s.createdAt < :createdAt or s.taskId < :taskId)
+        order by s.createdAt desc, s.taskId desc
+        """)
+    List<SlideSummary> findHistoryByStatusAfter(@Param("status") String status,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("taskId") String taskId,
+                                                Pageable limit);
+}
@@ -2,8 +2,16 @@
 package com.bkap.aislide.service;
 
 import com.bkap.aislide.dto.SlideItem;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.bkap.aislide.llm.LlmCallType;
+import com.bkap.aislide.llm.LlmClient;
+import com.bkap.aislide.llm.LlmTimeoutException;
+import com.bkap.aislide.outline.LenientOutlineParser;
+import com.bkap.aislide.outline.OutlineEngine;
+import com.bkap.aislide.profiling.HtmlSanitizeEvent;
+import com.bkap.aislide.profiling.TaskContext;
+import com.bkap.aislide.similarity.ContentReuse;
+import com.bkap.aislide.util.Deadline;
+import com.bkap.aislide.util.TextNormalizer;
 import lombok.RequiredArgsConstructor;
 import org.jsoup.Jsoup;
 import org.jsoup.safety.Safelist;
@@ -27,9 +35,11 @@ public class AiService {
     private static final Logger log = LoggerFactory.getLogger(AiService.class);
 
     @Value("${openai.api-key}") private String apiKey;
-    @Value("${openai.model}") private String model;
+    @Value("${generation.min-llm-ms:1500}") private long minLlmMs;
     private final RestTemplate restTemplate;
-    private final ObjectMapper mapper = new ObjectMapper();
+    private final LlmClient llm;
+    private final OutlineEngine outlineEngine;
+    private final ContentReuse reuse;
 
     @PostConstruct
     private void init() {
@@ -38,7 +48,16 @@ public class AiService {
         }
     }
 
-    public List<SlideItem> generateSmartOutline(String topic, int count) {
+    /**
+     * @param degraded outline mẫu thay cho outline từ LLM (hết hạn / lỗi / LLM không trả slide thân bài nào dùng được)
+     */
+    public record Outline(List<SlideItem> items, boolean degraded) {}
+
+    /**
+     * @param deadline hết hạn (lời gọi chính timeout) → outline mẫu; không đủ thời gian → bỏ lời gọi bổ sung.
+     * Chủ đề gần giống đã sinh trước đó → dùng lại / làm hạt giống qua {@link ContentReuse}.
+     */
+    public Outline generateSmartOutline(String topic, int count, Deadline deadline) {
         String prompt = """
             TẠO CHÍNH XÁC %d SLIDE VỀ CHỦ ĐỀ: "%s"
             TRẢ VỀ DUY NHẤT MỘT MẢNG JSON (KHÔNG ```):
@@ -54,58 +73,101 @@ public class AiService {
             - KHÔNG LẶP Ý, NGẮN GỌN, HẤP DẪN.
             """.formatted(count, topic);
 
-        String json = callGpt(prompt);
-        json = cleanJsonResponse(json);
-
-        try {
-            List<SlideItem> slides = mapper.readValue(json, new TypeReference<List<SlideItem>>() {});
-            Set<String> usedTitles = new HashSet<>();
-            List<SlideItem> result = new ArrayList<>();
-            int imageCount = 0;
-
-            for (SlideItem s : slides) {
-                if (result.size() >= count) break;
-                String t = s.title();
-                if (t == null || t.isBlank() || usedTitles.contains(t) || t.length() > 45 || t.matches(".*\\d.*")) continue;
-                usedTitles.add(t);
+        OutlineEngine.Draft draft = outlineEngine.newDraft(topic, count);
+        int bodyRequested = draft.bodyMissing();
 
-                if (s.type().equals("IMAGE") && imageCount >= 4) continue;
-                if (s.type().equals("IMAGE")) imageCount++;
-
-                result.add(s);
+        // Chủ đề gần giống đã có outline → dùng lại, hoặc lấy 1 phần làm hạt giống
+        ContentReuse.OutlineMatch prior = reuse.findOutline(topic).orElse(null);
+        boolean seeded = false;
+        if (prior != null) {
+            int missingBefore = draft.bodyMissing();
+            int limit = prior.reusable() ? missingBefore : reuse.seedLimit(count);
+            for (SlideItem item : prior.items()) {
+                if (missingBefore - draft.bodyMissing() >= limit) break;
+                // Slide tiêu đề gắn với chủ đề cũ → để finish() dựng theo chủ đề mới
+                if (OutlineEngine.TITLE.equals(item.type())) continue;
+                draft.offer(item);
+            }
+            if (prior.reusable() && draft.bodyMissing() == 0) {
+                reuse.recordOutlineReused(topic, prior);
+                return new Outline(draft.finish(), false);
+            }
+            int taken = missingBefore - draft.bodyMissing();
+            if (taken > 0) {
+                reuse.recordOutlineSeeded(topic, prior, taken);
+                seeded = true;
             }
+        }
 
-            while (result.size() < count - 1) {
-                result.add(new SlideItem("Khám Phá Thêm", "BULLET"));
+        if (!seeded) {
+            if (deadline.remainingMs() < minLlmMs) {
+                log.warn("Không đủ thời gian gọi outline → dùng outline mẫu");
+                return new Outline(fallbackOutline(topic, count), true);
             }
-            if (result.size() < count) {
-                result.add(new SlideItem("Bắt Đầu Ngay!", "CTA"));
+            try {
+                offerAll(draft, callGpt(LlmCallType.OUTLINE, prompt, deadline.remainingMs()));
+            } catch (Exception e) {
+                log.warn("Gọi outline lỗi → dùng outline mẫu", e);
+                return new Outline(fallbackOutline(topic, count), true);
             }
+        }
 
-            return result;
-        } catch (Exception e) {
-            log.warn("Parse outline lỗi → dùng fallback", e);
-            return fallbackOutline(topic, count);
+        // Thiếu slide (hoặc outline hạt giống) → chỉ xin bổ sung phần thiếu, không tạo lại cả outline
+        if (draft.bodyMissing() > 0 && deadline.remainingMs() >= minLlmMs) {
+            outlineEngine.recordFollowUp();
+            log.info("Outline thiếu {} slide → gọi bổ sung", draft.bodyMissing());
+            try {
+                offerAll(draft, callGpt(LlmCallType.OUTLINE_FOLLOWUP, followUpPrompt(topic, draft), deadline.remainingMs()));
+            } catch (Exception e) {
+                log.warn("Gọi bổ sung outline lỗi: {}", e.getMessage());
+            }
+        }
+
+        // Không slide thân bài nào từ LLM → toàn bộ thân bài là outline mẫu, không nhớ lại để dùng cho chủ đề khác
+        boolean templateOnly = bodyRequested > 0 && draft.bodyMissing() == bodyRequested;
+        List<SlideItem> outline = draft.finish();
+        if (templateOnly) {
+            log.warn("LLM không trả slide thân bài dùng được → outline mẫu");
+            return new Outline(outline, true);
         }
+        reuse.rememberOutline(topic, outline);
+        return new Outline(outline, false);
     }
 
-    // ĐÃ SỬA: public + XÓA \
+    private void offerAll(OutlineEngine.Draft draft, String raw) {
+        LenientOutlineParser.Result parsed = LenientOutlineParser.parse(raw);
+        if (parsed.rejected() > 0) {
+            outlineEngine.recordSalvaged();
+            log.info("JSON outline lỗi/cắt cụt: giữ {} slide, bỏ {} object", parsed.items().size(), parsed.rejected());
+        }
+        parsed.items().forEach(draft::offer);
+    }
+
+    private String followUpPrompt(String topic, OutlineEngine.Draft draft) {
+        int missing = draft.bodyMissing();
+        return """
+            BỔ SUNG CHÍNH XÁC %d SLIDE CHO BÀI THUYẾT TRÌNH VỀ: "%s"
+            CÁC SLIDE ĐÃ CÓ (KHÔNG LẶP Ý VỚI CÁC SLIDE NÀY):
+            %s
+            TRẢ VỀ DUY NHẤT MỘT MẢNG JSON (KHÔNG ```):
+            [{"title": "...", "type": "BULLET"}]
+            - TITLE: 3-7 từ, KHÔNG SỐ.
+            - TYPE: BULLET hoặc IMAGE (tối đa %d IMAGE).
+            """.formatted(missing, topic, "- " + String.join("\n- ", draft.titles()), draft.imageSlotsLeft());
+    }
+
+    /** Outline mẫu trung tính theo chủ đề (không còn cố định cho giáo dục). */
     public List<SlideItem> fallbackOutline(String topic, int count) {
-        List<SlideItem> list = List.of(
-            new SlideItem("AI Thay Đổi Giáo Dục", "TITLE"),
-            new SlideItem("Học Cá Nhân Hóa", "BULLET"),
-            new SlideItem("AI Trong Lớp Học", "IMAGE"),
-            new SlideItem("Hỗ Trợ Giáo Viên", "BULLET"),
-            new SlideItem("Tương Lai Hứa Hẹn", "BULLET"),
-            new SlideItem("Học Tập 24/7", "IMAGE"),
-            new SlideItem("Phân Tích Thông Minh", "BULLET"),
-            new SlideItem("Tăng Tương Tác", "BULLET"),
-            new SlideItem("Bắt Đầu Hành Trình", "CTA")
-        );
-        return list.subList(0, Math.min(count, list.size()));
+        return outlineEngine.templateOutline(topic, count);
     }
 
-    public String generateSlideHtml(String title, String type, String fullOutline) {
+    /**
+     * @return HTML đã làm sạch; null khi LLM trả lời không có nội dung dùng được → caller dùng {@link #fallbackSlideHtml}
+     *         (không tự thay bằng nội dung mẫu để caller biết slide bị giảm cấp và không đưa mẫu vào ContentReuse)
+     * @throws LlmTimeoutException khi quá {@code timeoutMs} → caller dùng {@link #fallbackSlideHtml}.
+     * @throws RuntimeException lỗi HTTP từ upstream (429/5xx...) → caller cũng dùng {@link #fallbackSlideHtml}.
+     */
+    public String generateSlideHtml(String title, String type, String fullOutline, long timeoutMs) {
         String prompt = """
             TẠO NỘI DUNG CHO SLIDE:
             Tiêu đề: "%s"
@@ -119,15 +181,21 @@ public class AiService {
             TRẢ VỀ CHỈ <div class="content">...</div>
             """.formatted(title, fullOutline, type);
 
-        String raw = callGpt(prompt);
+        String raw = callGpt(LlmCallType.SLIDE_BODY, prompt, timeoutMs);
         String content = extractContentDiv(raw);
         if (content == null || content.trim().isEmpty()) {
-            content = fallbackContent(title, type);
+            // Slide IMAGE được yêu cầu không trả nội dung
+            return "IMAGE".equals(type) ? "" : null;
         }
 
         return safeContent(content);
     }
 
+    /** Nội dung mẫu theo loại slide, không gọi LLM. */
+    public String fallbackSlideHtml(String title, String type) {
+        return safeContent(fallbackContent(title, type));
+    }
+
     private String fallbackContent(String title, String type) {
         return switch (type) {
             case "TITLE" -> "<p>Khám phá <strong>" + title + "</strong></p><p>Thay đổi cách học mãi mãi.</p>";
@@ -152,39 +220,41 @@ public class AiService {
 
     private String safeContent(String html) {
         if (html == null || html.isBlank()) return "";
+        HtmlSanitizeEvent event = new HtmlSanitizeEvent();
+        event.begin();
         Safelist safelist = Safelist.relaxed()
             .addTags("div", "p", "ul", "li", "strong", "button")
             .addAttributes("button", "class")
             .preserveRelativeLinks(true);
-        return Jsoup.clean(html, safelist);
+        String clean = Jsoup.clean(html, safelist);
+        event.taskId = TaskContext.current();
+        event.inputChars = html.length();
+        event.outputChars = clean.length();
+        event.commit();
+        return clean;
     }
 
-    public String generateImageKeyword(String title, String topic) {
+    public String generateImageKeyword(String title, String topic, long timeoutMs) {
         String prompt = "Tạo 1 từ khóa tiếng Việt tìm ảnh Unsplash liên quan đến: \"" + title + "\" trong chủ đề \"" + topic + "\". Chỉ trả 1 cụm từ ngắn, không dấu chấm.";
         try {
-            String raw = callGpt(prompt);
+            String raw = callGpt(LlmCallType.IMAGE_KEYWORD, prompt, timeoutMs);
             String keyword = raw.trim()
                 .replaceAll("[^\\p{L}0-9\\s]", " ")
                 .replaceAll("\\s+", " ")
                 .trim()
                 .toLowerCase();
             log.info("Từ khóa ảnh (tiếng Việt): {}", keyword);
-            return keyword.isEmpty() ? removeVietnameseAccents(topic) : keyword;
+            return keyword.isEmpty() ? TextNormalizer.foldAccents(topic) : keyword;
         } catch (Exception e) {
-            String fallback = removeVietnameseAccents(title + " " + topic);
+            String fallback = fallbackImageKeyword(title, topic);
             log.warn("Fallback từ khóa ảnh: {}", fallback);
             return fallback;
         }
     }
 
-    private String removeVietnameseAccents(String str) {
-        return java.text.Normalizer.normalize(str, java.text.Normalizer.Form.NFD)
-            .replaceAll("\\p{M}", "")
-            .replace("đ", "d").replace("Đ", "D")
-            .toLowerCase()
-            .replaceAll("[^a-z0-9\\s]", " ")
-            .replaceAll("\\s+", " ")
-            .trim();
+    /** Từ khóa ảnh không cần LLM: tiêu đề + chủ đề bỏ dấu. */
+    public String fallbackImageKeyword(String title, String topic) {
+        return TextNormalizer.foldAccents(title + " " + topic);
     }
 
     public String generateImage(String title) {
@@ -209,39 +279,12 @@ var matcher = Pattern.compile("src=\\[?(https://i\\.pinimg\\.com/[^\"]+\\.jpg)\"
         return "https://picsum.photos/seed/" + Math.abs(title.hashCode()) + "/800/800?blur=1";
     }
 
-    private String callGpt(String prompt) {
-        var body = Map.of(
-            "model", model,
-            "messages", List.of(Map.of("role", "user", "content", prompt)),
-            "temperature", 0.7,
-            "max_tokens", 800
-        );
-        var headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setBearerAuth(apiKey);
-
-        ResponseEntity<Map> resp = restTemplate.postForEntity(
-            "https://api.openai.com/v1/chat/completions",
-            new HttpEntity<>(body, headers),
-            Map.class
-        );
-
-        Map<String, Object> data = resp.getBody();
-        if (data == null || !data.containsKey("choices")) {
-            throw new RuntimeException("OpenAI lỗi");
-        }
-
-        @SuppressWarnings("unchecked")
-        List<Map<String, Object>> choices = (List<Map<String, Object>>) data.get("choices");
-        Map<String, Object> message = (Map<String, Object>) choices.get(0).get("message");
-        return (String) message.get("content");
-    }
-
-    private String cleanJsonResponse(String text) {
-        return text.trim().replaceAll("(?s)^```json\\s*|```$", "").trim();
+    private String callGpt(LlmCallType type, String prompt, long timeoutMs) {
+        return llm.complete(type, prompt, timeoutMs);
     }
 
     private String extractContentDiv(String html) {
+        if (html == null) return null;
         var m = Pattern.compile("<div[^>]*class=[^>]*content[^>]*>(.*?)</div>", Pattern.DOTALL).matcher(html);
         return m.find() ? m.group(1).trim() : html.trim();
     }
@@ -0,0 +1,126 @@
+// src/main/java/com/bkap/aislide/service/BulkGenerationService.java
+package com.bkap.aislide.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bkap.aislide.dto.GenerateRequest;
+import com.bkap.aislide.entity.SlideGeneration;
+import com.bkap.aislide.export.ExportFormat;
+import com.bkap.aislide.repository.SlideRepository;
+import com.bkap.aislide.util.TextNormalizer;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class BulkGenerationService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkGenerationService.class);
+
+    @Value("${bulk.max-size:50}")
+    private int maxSize;
+
+    @Value("${bulk.zip-timeout-ms:1800000}")
+    private long zipTimeoutMs;
+
+    @Value("${bulk.zip-poll-ms:2000}")
+    private long zipPollMs;
+
+    private final SlideRepository repo;
+    private final FileStorageService storage;
+
+    /** Tạo toàn bộ bản ghi trong 1 transaction → 1 flush, INSERT theo JDBC batch. */
+    @Transactional
+    public List<SlideGeneration> createBatch(List<GenerateRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("Danh sách chủ đề không được để trống");
+        }
+        if (requests.size() > maxSize) {
+            throw new IllegalArgumentException("Tối đa " + maxSize + " chủ đề mỗi batch");
+        }
+
+        String batchId = UUID.randomUUID().toString();
+        List<SlideGeneration> slides = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            GenerateRequest req = requests.get(i);
+            SlideGeneration slide = new SlideGeneration();
+            slide.setTopic(req.topic());
+            slide.setSlideCount(req.slideCount());
+            slide.setTheme(req.theme());
+            slide.setFormats(ExportFormat.toCsv(ExportFormat.parse(req.formats())));
+            slide.setDeadlineMs(req.targetLatencyMs());
+            slide.setBatchId(batchId);
+            slide.setBatchIndex(i);
+            slides.add(slide);
+        }
+        List<SlideGeneration> saved = repo.saveAll(slides);
+        log.info("Tạo batch {} | {} deck", batchId, saved.size());
+        return saved;
+    }
+
+    /**
+     * Ghi ZIP các PDF của batch ra {@code out}, mỗi file được ghi ngay khi deck hoàn tất.
+     * Deck lỗi được bỏ qua; dừng khi hết deck đang chạy hoặc quá bulk.zip-timeout-ms.
+     */
+    public void streamZip(String batchId, OutputStream out) throws IOException {
+        long deadline = System.currentTimeMillis() + zipTimeoutMs;
+        Set<String> done = new HashSet<>();
+
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            while (true) {
+                List<SlideGeneration> items = repo.findBatch(batchId);
+                boolean pending = false;
+
+                for (int i = 0; i < items.size(); i++) {
+                    SlideGeneration s = items.get(i);
+                    if (done.contains(s.getTaskId())) continue;
+
+                    if ("completed".equals(s.getStatus())) {
+                        Path pdf = storage.resolve(s.getTaskId() + ".pdf");
+                        if (Files.exists(pdf)) {
+                            zip.putNextEntry(new ZipEntry(String.format("%02d-%s.pdf", i + 1, slug(s.getTopic()))));
+                            Files.copy(pdf, zip);
+                            zip.closeEntry();
+                        }
+                        done.add(s.getTaskId());
+                    } else if ("failed".equals(s.getStatus())) {
+                        done.add(s.getTaskId());
+                    } else {
+                        pending = true;
+                    }
+                }
+                zip.flush();
+                out.flush();
+
+                if (!pending || System.currentTimeMillis() > deadline) break;
+                try {
+                    Thread.sleep(zipPollMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    private String slug(String topic) {
+        String s = TextNormalizer.foldAccents(topic).replace(' ', '-');
+        return s.isEmpty() ? "slide" : s.substring(0, Math.min(60, s.length()));
+    }
+}
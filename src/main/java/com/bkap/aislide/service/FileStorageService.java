@@ -29,4 +29,8 @@ public class FileStorageService {
         Files.write(path, data);
         return "/api/slides/download/" + filename;
     }
+
+    public Path resolve(String filename) {
+        return Paths.get(uploadDir).resolve(filename).normalize();
+    }
 }
\ No newline at end of file
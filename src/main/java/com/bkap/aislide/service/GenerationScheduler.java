@@ -0,0 +1,260 @@
+// src/main/java/com/bkap/aislide/service/GenerationScheduler.java
+package com.bkap.aislide.service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.bkap.aislide.dto.QueueTicket;
+import com.bkap.aislide.dto.SlideContent;
+import com.bkap.aislide.entity.SlideGeneration;
+
+/**
+ * Điều phối job tạo slide, công bằng theo client (start-time fair queuing):
+ *
+ * - Tổng số deck chạy đồng thời = generation.workers (ngân sách LLM dùng chung).
+ * - Mỗi job mang nhãn bắt đầu S = max(V, F của job trước cùng client) và F = S + số slide / trọng số client;
+ *   luôn chạy job có S nhỏ nhất → client gửi dồn dập bị xen kẽ với người khác thay vì chiếm hàng đợi FIFO.
+ * - Trong 1 client, job chạy theo thứ tự gửi. Khi có tranh chấp, 1 batch chỉ chiếm tối đa
+ *   bulk.max-concurrent-per-batch slot; khi rảnh, batch được dùng hết slot trống (work-conserving).
+ * - Vị trí + thời gian chờ ước tính tính theo thứ tự nhãn S và tốc độ ms/slide trượt (EWMA).
+ * - Deck dựng sẵn (ReadyDeckPool) cũng đi qua hàng đợi với trọng số 1: chỉ render, nhưng vẫn chiếm 1 slot
+ *   để loạt request trúng pool không render song song vô hạn trên thread của Tomcat.
+ * - Việc nền (pre-generation) dùng chung slot worker nhưng ưu tiên thấp nhất: chỉ được lấy slot khi
+ *   không còn job nào của người dùng đang chờ.
+ */
+@Service
+public class GenerationScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(GenerationScheduler.class);
+
+    @Value("${generation.workers:2}")
+    private int workers;
+
+    @Value("${bulk.max-concurrent-per-batch:1}")
+    private int perBatchLimit;
+
+    // Ước lượng ban đầu trước khi có job nào chạy xong
+    @Value("${generation.initial-ms-per-slide:4000}")
+    private double msPerSlide;
+
+    private final SlideGenerationTask task;
+    private final Executor executor;
+
+    private final Map<String, Client> clients = new HashMap<>();
+    private final Map<String, Integer> batchRunning = new HashMap<>();
+    private double virtualTime;
+    private long seq;
+    private int running;
+
+    private static final class Job {
+        final String taskId;
+        final String batchId;
+        final int weight;
+        final double start;
+        final long seq;
+        // != null → chỉ render deck dựng sẵn
+        final List<SlideContent> ready;
+        // != null → việc nền, chạy thay cho generate/renderReady
+        final Runnable background;
+
+        Job(String taskId, String batchId, int weight, double start, long seq, List<SlideContent> ready, Runnable background) {
+            this.taskId = taskId;
+            this.batchId = batchId;
+            this.weight = weight;
+            this.start = start;
+            this.seq = seq;
+            this.ready = ready;
+            this.background = background;
+        }
+    }
+
+    private static final class Client {
+        final String id;
+        final double weight;
+        final Deque<Job> queue = new ArrayDeque<>();
+        double lastFinish;
+        int running;
+
+        Client(String id, double weight) {
+            this.id = id;
+            this.weight = weight;
+        }
+    }
+
+    public GenerationScheduler(SlideGenerationTask task, @Qualifier("taskExecutor") Executor executor) {
+        this.task = task;
+        this.executor = executor;
+    }
+
+    /** Request lẻ của {@code clientId}. */
+    public QueueTicket submit(String clientId, double clientWeight, SlideGeneration slide) {
+        QueueTicket ticket = enqueue(clientId, clientWeight, List.of(slide));
+        dispatch();
+        return ticket;
+    }
+
+    /** Deck lấy từ ReadyDeckPool: chỉ render/xuất file, không gọi LLM. */
+    public QueueTicket submitReady(String clientId, double clientWeight, SlideGeneration slide, List<SlideContent> slides) {
+        QueueTicket ticket;
+        synchronized (this) {
+            Client c = client(clientId, clientWeight);
+            Job job = new Job(slide.getTaskId(), null, 1, tag(c, 1), seq++, List.copyOf(slides), null);
+            c.queue.addLast(job);
+            ticket = ticketFor(job);
+        }
+        dispatch();
+        return ticket;
+    }
+
+    /** Batch: các deck vào hàng của cùng client, giới hạn slot theo batchId. */
+    public QueueTicket submitBatch(String clientId, double clientWeight, List<SlideGeneration> slides) {
+        QueueTicket ticket = enqueue(clientId, clientWeight, slides);
+        dispatch();
+        return ticket;
+    }
+
+    /**
+     * Việc nền (pre-generation) của {@code clientId}: chiếm 1 slot worker như deck {@code slideCount} slide,
+     * nhưng chỉ chạy khi không còn job người dùng nào chờ.
+     */
+    public void submitBackground(String clientId, double clientWeight, String jobId, int slideCount, Runnable work) {
+        synchronized (this) {
+            Client c = client(clientId, clientWeight);
+            int weight = Math.max(1, slideCount);
+            c.queue.addLast(new Job(jobId, null, weight, tag(c, weight), seq++, null, work));
+        }
+        dispatch();
+    }
+
+    /** Không có job nào đang chạy hay chờ (dùng cho pre-generation ngoài giờ cao điểm). */
+    public synchronized boolean isIdle() {
+        return running == 0 && clients.isEmpty();
+    }
+
+    /** Vị trí hiện tại của job trong hàng đợi; empty nếu đã chạy/xong. */
+    public synchronized Optional<QueueTicket> ticket(String taskId) {
+        for (Client c : clients.values()) {
+            for (Job j : c.queue) {
+                if (j.taskId.equals(taskId)) return Optional.of(ticketFor(j));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /** @return vé của job đầu tiên trong danh sách. */
+    private synchronized QueueTicket enqueue(String clientId, double clientWeight, List<SlideGeneration> slides) {
+        Client c = client(clientId, clientWeight);
+        Job first = null;
+        for (SlideGeneration s : slides) {
+            int weight = s.getSlideCount() == null ? 1 : Math.max(1, s.getSlideCount());
+            Job job = new Job(s.getTaskId(), s.getBatchId(), weight, tag(c, weight), seq++, null, null);
+            c.queue.addLast(job);
+            if (first == null) first = job;
+        }
+        QueueTicket ticket = ticketFor(first);
+        log.info("Xếp hàng {} job | client: {} | vị trí: {} | chờ ~{}ms | đang chạy: {}/{} | số client: {}",
+            slides.size(), clientId, ticket.position(), ticket.estimatedWaitMs(), running, workers, clients.size());
+        return ticket;
+    }
+
+    private Client client(String clientId, double clientWeight) {
+        return clients.computeIfAbsent(clientId, id -> new Client(id, Math.max(0.1, clientWeight)));
+    }
+
+    /** Nhãn S của job mới, đồng thời đẩy F của client. */
+    private double tag(Client c, int weight) {
+        double start = Math.max(virtualTime, c.lastFinish);
+        c.lastFinish = start + weight / c.weight;
+        return start;
+    }
+
+    /** Vị trí = số job có nhãn S nhỏ hơn (+1, không tính việc nền); chờ = tổng slide phía trước × ms/slide / số worker. */
+    private QueueTicket ticketFor(Job job) {
+        int ahead = 0;
+        long slidesAhead = 0;
+        for (Client c : clients.values()) {
+            for (Job j : c.queue) {
+                if (j.background != null) continue;
+                if (j.start < job.start || (j.start == job.start && j.seq < job.seq)) {
+                    ahead++;
+                    slidesAhead += j.weight;
+                }
+            }
+        }
+        int freeSlots = Math.max(0, workers - running);
+        long waitMs = ahead < freeSlots ? 0 : (long) (slidesAhead * msPerSlide / Math.max(1, workers));
+        return new QueueTicket(ahead + 1, waitMs);
+    }
+
+    private void dispatch() {
+        synchronized (this) {
+            while (running < workers) {
+                Client c = next(true, false);
+                if (c == null) c = next(false, false);
+                if (c == null) c = next(false, true);
+                if (c == null) break;
+
+                Job job = c.queue.poll();
+                virtualTime = Math.max(virtualTime, job.start);
+                c.running++;
+                running++;
+                if (job.batchId != null) batchRunning.merge(job.batchId, 1, Integer::sum);
+                Client client = c;
+                executor.execute(() -> run(client, job));
+            }
+        }
+    }
+
+    /**
+     * Client có job đầu hàng với nhãn S nhỏ nhất; {@code respectLimit=false} khi còn slot trống mà mọi batch đã chạm limit.
+     * {@code background=false} chỉ xét job người dùng, {@code true} chỉ xét việc nền.
+     */
+    private Client next(boolean respectLimit, boolean background) {
+        Client best = null;
+        for (Client c : clients.values()) {
+            Job head = c.queue.peek();
+            if (head == null || (head.background != null) != background) continue;
+            if (respectLimit && head.batchId != null
+                && batchRunning.getOrDefault(head.batchId, 0) >= perBatchLimit) continue;
+            Job bestHead = best == null ? null : best.queue.peek();
+            if (bestHead == null || head.start < bestHead.start
+                || (head.start == bestHead.start && head.seq < bestHead.seq)) {
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    private void run(Client c, Job job) {
+        long start = System.currentTimeMillis();
+        try {
+            if (job.background != null) job.background.run();
+            else if (job.ready != null) task.renderReady(job.taskId, job.ready);
+            else task.generate(job.taskId);
+        } catch (Exception e) {
+            log.error("Job {} lỗi ngoài dự kiến: {}", job.taskId, e.getMessage(), e);
+        } finally {
+            long elapsed = System.currentTimeMillis() - start;
+            synchronized (this) {
+                // Render deck dựng sẵn nhanh hơn hẳn, việc nền có ngân sách riêng → không đưa vào ước lượng ms/slide
+                if (job.ready == null && job.background == null) msPerSlide = 0.8 * msPerSlide + 0.2 * ((double) elapsed / job.weight);
+                c.running--;
+                running--;
+                if (job.batchId != null) batchRunning.computeIfPresent(job.batchId, (k, v) -> v > 1 ? v - 1 : null);
+                if (c.queue.isEmpty() && c.running == 0) clients.remove(c.id, c);
+            }
+            dispatch();
+        }
+    }
+}
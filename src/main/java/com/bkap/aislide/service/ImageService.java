@@ -18,6 +18,8 @@ import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import com.bkap.aislide.profiling.ImageResolveEvent;
+import com.bkap.aislide.profiling.TaskContext;
 import com.bkap.aislide.util.KeywordExtractor;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -36,6 +38,12 @@ public class ImageService {
     @Value("${google.cse.cx:}")
     private String googleCx;
 
+    @Value("${google.cse.base-url:https://www.googleapis.com}")
+    private String googleBaseUrl;
+
+    @Value("${image.unsplash-base-url:https://source.unsplash.com}")
+    private String unsplashBaseUrl;
+
     private final KeywordExtractor keywordExtractor;
     private final ObjectMapper mapper = new ObjectMapper();
 
@@ -55,7 +63,14 @@ public class ImageService {
         String mainKeyword = kws.isEmpty() ? raw : String.join(" ", kws);
         log.info("🔎 Query image for: {}", mainKeyword);
 
+        ImageResolveEvent event = new ImageResolveEvent();
+        event.begin();
         String google = findGoogleImage(mainKeyword);
+        event.taskId = TaskContext.current();
+        event.source = "google";
+        event.target = mainKeyword;
+        event.success = google != null;
+        event.commit();
         return (google != null) ? google : fallbackUnsplash(mainKeyword);
     }
 
@@ -71,7 +86,7 @@ public class ImageService {
             String enhanced = query + " site:unsplash.com OR site:pexels.com OR site:pixabay.com";
             String encoded = URLEncoder.encode(enhanced, StandardCharsets.UTF_8);
 
-            String url = "https://www.googleapis.com/customsearch/v1"
+            String url = googleBaseUrl + "/customsearch/v1"
                     + "?key=" + googleKey
                     + "&cx=" + googleCx
                     + "&q=" + encoded
@@ -121,7 +136,7 @@ public class ImageService {
 
     /** 🖼️ Fallback Unsplash (nếu Google không trả về ảnh). */
     private String fallbackUnsplash(String query) {
-        String url = "https://source.unsplash.com/800x600/?" + URLEncoder.encode(query, StandardCharsets.UTF_8);
+        String url = unsplashBaseUrl + "/800x600/?" + URLEncoder.encode(query, StandardCharsets.UTF_8);
         log.info("🖼️ Unsplash fallback: {}", url);
         return url;
     }
@@ -1,26 +1,30 @@
 // src/main/java/com/bkap/aislide/service/SlideGenerationTask.java
 package com.bkap.aislide.service;
 
-import java.io.ByteArrayOutputStream;
-import java.io.InputStream;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.bkap.aislide.dto.SlideContent;
 import com.bkap.aislide.dto.SlideItem;
 import com.bkap.aislide.entity.SlideGeneration;
+import com.bkap.aislide.export.ExportFormat;
+import com.bkap.aislide.export.ExportService;
+import com.bkap.aislide.llm.LlmTimeoutException;
+import com.bkap.aislide.preview.PreviewService;
+import com.bkap.aislide.profiling.DeckGenerationEvent;
+import com.bkap.aislide.profiling.TaskContext;
 import com.bkap.aislide.repository.SlideRepository;
-import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
+import com.bkap.aislide.similarity.ContentReuse;
+import com.bkap.aislide.util.Deadline;
 
 import lombok.RequiredArgsConstructor;
 
@@ -30,144 +34,206 @@ public class SlideGenerationTask {
 
     private static final Logger log = LoggerFactory.getLogger(SlideGenerationTask.class);
 
-    private final AiService ai;
-    private final FileStorageService storage;
-    private final SlideRepository repo;
+    // Ngân sách thời gian xử lý 1 deck khi request không chỉ định targetLatencyMs
+    @Value("${generation.default-deadline-ms:120000}")
+    private long defaultDeadlineMs;
 
-    @Async("taskExecutor")
-    public void generateAsync(String taskId) {
-        SlideGeneration slide = repo.findById(taskId).orElseThrow();
+    // Phần ngân sách tối đa cho bước outline
+    @Value("${generation.outline-budget-fraction:0.25}")
+    private double outlineBudgetFraction;
 
-        log.info("Bắt đầu tạo slide | taskId: {} | Chủ đề: \"{}\" | Số slide: {}", taskId, slide.getTopic(), slide.getSlideCount());
+    // Giữ lại cho bước render/xuất file: tỉ lệ ngân sách, tối đa render-reserve-ms
+    // (ngân sách nhỏ như 10s vẫn còn phần cho LLM thay vì giảm cấp mọi slide)
+    @Value("${generation.render-reserve-fraction:0.2}")
+    private double renderReserveFraction;
 
-        try {
-            int count = slide.getSlideCount();
-            List<SlideItem> outline = ai.generateSmartOutline(slide.getTopic(), count);
-            if (outline == null || outline.isEmpty()) {
-                log.warn("Outline rỗng → dùng fallback");
-                outline = ai.fallbackOutline(slide.getTopic(), count); // ĐÃ SỬA: CHỈ 2 THAM SỐ
-            }
+    @Value("${generation.render-reserve-ms:15000}")
+    private long renderReserveMs;
 
-            List<String> htmlSlides = new ArrayList<>();
-            int imageCount = 0;
-            final int MAX_IMAGES = 5;
+    // Còn dưới tỉ lệ này của tổng ngân sách → bỏ ảnh (bậc giảm cấp đầu tiên)
+    @Value("${generation.image-cutoff-fraction:0.4}")
+    private double imageCutoffFraction;
 
-            for (int i = 0; i < outline.size(); i++) {
-                SlideItem item = outline.get(i);
-                String title = item.title() != null && !item.title().isBlank() ? item.title().trim() : "Slide " + (i + 1);
-                log.info("Slide {}: {} | Type: {}", (i + 1), title, item.type());
+    // Thời gian tối thiểu cho bước xuất file kể cả khi ngân sách đã cạn (deck trễ tối đa ngần này)
+    @Value("${generation.min-export-ms:5000}")
+    private long minExportMs;
 
-                String content = ai.generateSlideHtml(title, item.type(), slide.getTopic());
-                if (content == null || content.trim().isEmpty()) {
-                    content = "<p>Nội dung đang tải...</p>";
-                }
+    @Value("${generation.min-llm-ms:1500}")
+    private long minLlmMs;
 
-                String imageHtml = "";
-                if (item.type().equals("IMAGE") && imageCount < MAX_IMAGES) {
-                    imageCount++;
-                    String keyword = ai.generateImageKeyword(title, slide.getTopic()); // ĐÃ CÓ METHOD
-                    String encoded = URLEncoder.encode(keyword, StandardCharsets.UTF_8);
-                    String imgUrl = "https://source.unsplash.com/random/600x800/?" + encoded + "&auto=format&fit=crop";
-                    String escapedUrl = imgUrl.replace("&", "&amp;");
-                    log.info("IMAGE URL [Slide {}]: {}", (i + 1), imgUrl);
-                    imageHtml = "<img src=\"" + escapedUrl + "\" alt=\"" + escape(title) + "\" />";
-                }
+    @Value("${image.unsplash-base-url:https://source.unsplash.com}")
+    private String unsplashBaseUrl;
 
-                String slideHtml = """
-                    <div class="slide">
-                      <div class="col-left">
-                        <h1>%s</h1>
-                        <div class="content">%s</div>
-                      </div>
-                      <div class="col-right">
-                        %s
-                      </div>
-                    </div>
-                    """.formatted(escape(title), content, imageHtml);
-
-                htmlSlides.add(slideHtml);
-            }
+    private final AiService ai;
+    private final SlideRepository repo;
+    private final ExportService exporter;
+    private final PreviewService previews;
+    private final ContentReuse reuse;
+
+    /** Chạy toàn bộ pipeline cho 1 deck; được GenerationScheduler gọi trên taskExecutor. */
+    public void generate(String taskId) {
+        SlideGeneration slide = repo.findById(taskId).orElseThrow();
 
-            byte[] pdf = generatePdf(htmlSlides);
-            String fileUrl = storage.save(taskId, pdf, "pdf");
+        DeckGenerationEvent event = deckEvent(slide, "llm");
+        try (TaskContext.Scope scope = TaskContext.open(taskId)) {
+            process(slide);
+        } finally {
+            commit(event, slide);
+        }
+    }
 
-            slide.setStatus("completed");
-            slide.setFileUrl(fileUrl);
-            slide.setCompletedAt(LocalDateTime.now());
-            repo.save(slide);
+    private void process(SlideGeneration slide) {
+        String taskId = slide.getTaskId();
+        log.info("Bắt đầu tạo slide | taskId: {} | Chủ đề: \"{}\" | Số slide: {}", taskId, slide.getTopic(), slide.getSlideCount());
+
+        try {
+            long budget = slide.getDeadlineMs() != null ? slide.getDeadlineMs() : defaultDeadlineMs;
+            Deadline deadline = Deadline.afterMillis(budget);
 
-            log.info("HOÀN TẤT! PDF đã lưu: {}", fileUrl);
+            List<SlideContent> slides = buildSlides(slide.getTopic(), slide.getSlideCount(), deadline);
+            complete(slide, slides, Math.max(minExportMs, deadline.remainingMs()));
+
+            log.info("HOÀN TẤT! PDF đã lưu: {} | {}ms / ngân sách {}ms | slide rút gọn: [{}]",
+                slide.getFileUrl(), deadline.elapsedMs(), budget, slide.getDegradedSlides());
 
         } catch (Exception e) {
-            log.error("LỖI KHI TẠO PDF: {}", e.getMessage(), e);
-            slide.setStatus("failed");
-            slide.setErrorMessage("Lỗi: " + e.getMessage());
-            repo.save(slide);
+            fail(slide, e);
         }
     }
 
-    private byte[] generatePdf(List<String> slides) throws Exception {
-        StringBuilder html = new StringBuilder();
-        html.append("<!DOCTYPE html>\n<html>\n<head>\n")
-            .append("  <meta charset=\"UTF-8\"/>\n")
-            .append("  <title>Slide AI</title>\n")
-            .append("  <style>\n")
-            .append("    @page { size: 1920px 1080px; margin: 0; }\n")
-            .append("    body { margin: 0; padding: 0; font-family: 'NotoSans', Arial, sans-serif; background: #f9fafb; }\n")
-            .append("    .slide { width: 1920px; height: 1080px; page-break-after: always; page-break-inside: avoid; padding: 80px; box-sizing: border-box; display: flex; gap: 60px; align-items: flex-start; background: #ffffff; }\n")
-            .append("    .col-left { flex: 1.4; display: flex; flex-direction: column; }\n")
-            .append("    .col-left h1 { font-size: 72px; margin: 0 0 50px; color: #1e293b; text-align: center; line-height: 1.2; font-weight: 700; }\n")
-            .append("    .content { font-size: 36px; line-height: 1.6; color: #334155; }\n")
-            .append("    .content ul { list-style: none; padding: 0; margin: 0; }\n")
-            .append("    .content li { margin: 24px 0; position: relative; padding-left: 44px; }\n")
-            .append("    .content li:before { content: '•'; color: #f59e0b; position: absolute; left: 0; font-size: 36px; font-weight: bold; top: -4px; }\n")
-            .append("    .col-right { flex: 0.6; display: flex; align-items: center; justify-content: center; }\n")
-            .append("    .col-right img { width: 100%; max-width: 520px; height: auto; max-height: 720px; border-radius: 28px; box-shadow: 0 25px 50px rgba(0,0,0,0.2); object-fit: cover; }\n")
-            .append("    .cta { text-align: center; margin-top: auto; }\n")
-            .append("    .cta p { font-size: 52px; margin-bottom: 40px; color: #1e293b; }\n")
-            .append("    .cta-button { background: linear-gradient(135deg, #f59e0b, #f97316); color: white; font-weight: 800; padding: 28px 90px; font-size: 54px; border-radius: 80px; border: none; cursor: pointer; box-shadow: 0 15px 35px rgba(249,115,22,0.35); }\n")
-            .append("  </style>\n")
-            .append("</head>\n<body>\n");
-
-        for (String s : slides) {
-            html.append(s).append("\n");
+    /** Chỉ render/xuất từ mô hình slide có sẵn (deck dựng trước), không gọi LLM; GenerationScheduler gọi trên taskExecutor. */
+    public void renderReady(String taskId, List<SlideContent> slides) {
+        SlideGeneration slide = repo.findById(taskId).orElseThrow();
+        long start = System.currentTimeMillis();
+        DeckGenerationEvent event = deckEvent(slide, "ready");
+        try (TaskContext.Scope scope = TaskContext.open(taskId)) {
+            complete(slide, slides, slide.getDeadlineMs() != null ? slide.getDeadlineMs() : defaultDeadlineMs);
+            log.info("HOÀN TẤT từ deck dựng sẵn | taskId: {} | {}ms", slide.getTaskId(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            fail(slide, e);
+        } finally {
+            commit(event, slide);
         }
+    }
 
-        html.append("</body>\n</html>");
+    private static DeckGenerationEvent deckEvent(SlideGeneration slide, String mode) {
+        DeckGenerationEvent event = new DeckGenerationEvent();
+        event.begin();
+        event.taskId = slide.getTaskId();
+        event.mode = mode;
+        event.slideCount = slide.getSlideCount() == null ? 0 : slide.getSlideCount();
+        return event;
+    }
 
-        String finalHtml = html.toString()
-            .replaceAll("(?i)<(meta|img|br|hr)([^>]*)(?<!/)>", "<$1$2 />")
-            .replaceAll("&(?!amp;|lt;|gt;|quot;|#)", "&amp;")
-            .trim();
+    private static void commit(DeckGenerationEvent event, SlideGeneration slide) {
+        event.status = slide.getStatus();
+        String degraded = slide.getDegradedSlides();
+        event.degradedSlides = degraded == null || degraded.isEmpty() ? 0 : degraded.split(",").length;
+        event.commit();
+    }
 
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        PdfRendererBuilder builder = new PdfRendererBuilder();
+    private void complete(SlideGeneration slide, List<SlideContent> slides, long exportTimeoutMs) throws Exception {
+        ExportService.ExportResult result = exporter.export(
+            slide.getTaskId(), slide.getTheme(), slide.getTopic(), slides, ExportFormat.parse(slide.getFormats()), exportTimeoutMs);
 
-        builder.useFastMode();
-        builder.withProducer("AI Slide Pro v19.0");
-        builder.withHtmlContent(finalHtml, null);
-        builder.toStream(out);
+        // Bước xuất có thể bỏ thêm ảnh khi quá hạn → tính slide rút gọn trên bản đã xuất thật
+        String degraded = result.slides().stream()
+            .filter(SlideContent::degraded)
+            .map(s -> String.valueOf(s.index() + 1))
+            .collect(Collectors.joining(","));
 
-        Path regPath = Paths.get("src/main/resources/fonts/NotoSans-Regular.ttf").toAbsolutePath();
-        Path boldPath = Paths.get("src/main/resources/fonts/NotoSans-Bold.ttf").toAbsolutePath();
+        slide.setStatus("completed");
+        slide.setFileUrl(result.pdfUrl());
+        slide.setExports(result.files());
+        slide.setDegradedSlides(degraded.isEmpty() ? null : degraded);
+        slide.setCompletedAt(LocalDateTime.now());
+        repo.save(slide);
 
-        try (InputStream reg = Files.exists(regPath) ? Files.newInputStream(regPath) : null;
-             InputStream bold = Files.exists(boldPath) ? Files.newInputStream(boldPath) : null) {
+        previews.prerenderFirstPage(slide.getTaskId());
+    }
 
-            if (reg != null) builder.useFont(() -> reg, "NotoSans", 400, PdfRendererBuilder.FontStyle.NORMAL, true);
-            if (bold != null) builder.useFont(() -> bold, "NotoSans", 700, PdfRendererBuilder.FontStyle.NORMAL, true);
+    private void fail(SlideGeneration slide, Exception e) {
+        log.error("LỖI KHI TẠO PDF: {}", e.getMessage(), e);
+        slide.setStatus("failed");
+        slide.setErrorMessage("Lỗi: " + e.getMessage());
+        repo.save(slide);
+    }
 
-            try (var renderer = builder.buildPdfRenderer()) {
-                renderer.layout();
-                renderer.createPDF(out);
-            }
+    /**
+     * Các bước LLM → mô hình slide. Khi ngân sách cạn, giảm cấp theo thứ tự cố định thay vì chờ:
+     * bỏ ảnh → nội dung mẫu cho các slide còn lại → outline mẫu.
+     * Outline mẫu → mọi slide đánh dấu rút gọn (deck như vậy không được PreGenerator đưa vào pool).
+     */
+    public List<SlideContent> buildSlides(String topic, int count, Deadline deadline) {
+        AiService.Outline generated = ai.generateSmartOutline(topic, count, deadline.sub(outlineBudgetFraction));
+        List<SlideItem> outline = generated.items();
+        boolean outlineDegraded = generated.degraded();
+        if (outline == null || outline.isEmpty()) {
+            log.warn("Outline rỗng → dùng fallback");
+            outline = ai.fallbackOutline(topic, count); // ĐÃ SỬA: CHỈ 2 THAM SỐ
+            outlineDegraded = true;
         }
+        if (outlineDegraded) log.warn("Outline mẫu → mọi slide của \"{}\" bị đánh dấu rút gọn", topic);
+
+        // Thời hạn cho các bước LLM, chừa phần cho render
+        Deadline llmDeadline = deadline.minus(Math.min(renderReserveMs, (long) (deadline.totalMs() * renderReserveFraction)));
+        long imageCutoffMs = (long) (deadline.totalMs() * imageCutoffFraction);
+
+        List<SlideContent> slides = new ArrayList<>();
+        int imageCount = 0;
+        final int MAX_IMAGES = 5;
+
+        for (int i = 0; i < outline.size(); i++) {
+            SlideItem item = outline.get(i);
+            String title = item.title() != null && !item.title().isBlank() ? item.title().trim() : "Slide " + (i + 1);
+            log.info("Slide {}: {} | Type: {}", (i + 1), title, item.type());
+            boolean degraded = outlineDegraded;
+
+            // Slide gần giống (cùng loại, chủ đề gần giống) đã sinh trước đó → dùng lại, không gọi LLM
+            String content = reuse.findSlideBody(topic, title, item.type()).orElse(null);
+            if (content != null) {
+                log.info("Slide {} dùng lại nội dung đã sinh", i + 1);
+            } else if (llmDeadline.remainingMs() >= minLlmMs) {
+                try {
+                    content = ai.generateSlideHtml(title, item.type(), topic, llmDeadline.remainingMs());
+                    // Chỉ nhớ nội dung LLM thật sự sinh ra, không nhớ nội dung mẫu
+                    if (content != null) reuse.rememberSlideBody(topic, title, item.type(), content);
+                    else log.warn("Slide {} LLM trả nội dung không dùng được → nội dung mẫu", i + 1);
+                } catch (LlmTimeoutException e) {
+                    log.warn("Slide {} hết thời gian LLM → nội dung mẫu", i + 1);
+                } catch (RuntimeException e) {
+                    // 429/5xx khi upstream quá tải: chỉ slide này giảm cấp, không đánh lỗi cả deck
+                    log.warn("Slide {} gọi LLM lỗi ({}) → nội dung mẫu", i + 1, e.getMessage());
+                    content = null;
+                }
+            }
+            if (content == null) {
+                content = ai.fallbackSlideHtml(title, item.type());
+                degraded = true;
+            }
+            if (content == null || content.trim().isEmpty()) {
+                content = "<p>Nội dung đang tải...</p>";
+            }
 
-        return out.toByteArray();
-    }
+            String imgUrl = null;
+            if (item.type().equals("IMAGE") && imageCount < MAX_IMAGES) {
+                if (deadline.remainingMs() < imageCutoffMs) {
+                    log.warn("Slide {} bỏ ảnh: còn {}ms", i + 1, deadline.remainingMs());
+                    degraded = true;
+                } else {
+                    imageCount++;
+                    // Không đủ thời gian cho 1 lời gọi LLM → từ khóa từ tiêu đề, không gửi request chắc chắn timeout
+                    String keyword = llmDeadline.remainingMs() >= minLlmMs
+                        ? ai.generateImageKeyword(title, topic, llmDeadline.remainingMs())
+                        : ai.fallbackImageKeyword(title, topic);
+                    String encoded = URLEncoder.encode(keyword, StandardCharsets.UTF_8);
+                    imgUrl = unsplashBaseUrl + "/random/600x800/?" + encoded + "&auto=format&fit=crop";
+                    log.info("IMAGE URL [Slide {}]: {}", (i + 1), imgUrl);
+                }
+            }
 
-    private String escape(String s) {
-        if (s == null) return "";
-        return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+            slides.add(new SlideContent(i, title, item.type(), content, imgUrl, degraded));
+        }
+        return slides;
     }
-}
\ No newline at end of file
+}
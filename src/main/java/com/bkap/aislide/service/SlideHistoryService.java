@@ -0,0 +1,52 @@
+// src/main/java/com/bkap/aislide/service/SlideHistoryService.java
+package com.bkap.aislide.service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import com.bkap.aislide.dto.HistoryPage;
+import com.bkap.aislide.dto.SlideSummary;
+import com.bkap.aislide.repository.SlideRepository;
+import com.bkap.aislide.util.KeysetCursor;
+
+import lombok.RequiredArgsConstructor;
+
+/** Lịch sử deck: keyset pagination, lấy size+1 dòng để biết còn trang sau mà không cần COUNT. */
+@Service
+@RequiredArgsConstructor
+public class SlideHistoryService {
+
+    @Value("${history.max-page-size:100}")
+    private int maxPageSize;
+
+    private final SlideRepository repo;
+
+    public HistoryPage page(String status, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(maxPageSize, size));
+        Pageable limit = PageRequest.ofSize(pageSize + 1);
+        boolean byStatus = status != null && !status.isBlank();
+
+        List<SlideSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = byStatus ? repo.findHistoryByStatus(status, limit) : repo.findHistory(limit);
+        } else {
+            KeysetCursor c = KeysetCursor.decode(cursor);
+            rows = byStatus
+                ? repo.findHistoryByStatusAfter(status, c.createdAt(), c.taskId(), limit)
+                : repo.findHistoryAfter(c.createdAt(), c.taskId(), limit);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<SlideSummary> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String next = null;
+        if (hasMore) {
+            SlideSummary last = items.get(items.size() - 1);
+            next = new KeysetCursor(last.createdAt(), last.taskId()).encode();
+        }
+        return new HistoryPage(List.copyOf(items), next, hasMore);
+    }
+}
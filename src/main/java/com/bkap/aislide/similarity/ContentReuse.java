@@ -0,0 +1,151 @@
+// src/main/java/com/bkap/aislide/similarity/ContentReuse.java
+package com.bkap.aislide.similarity;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.bkap.aislide.dto.SlideItem;
+import com.bkap.aislide.llm.LlmCallType;
+import com.bkap.aislide.profiling.LlmCallEvent;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Tái sử dụng outline / nội dung slide đã sinh cho các chủ đề gần giống
+ * ("AI trong giáo dục" ~ "Ứng dụng AI trong giáo dục"), chạy hoàn toàn trong process:
+ *  - chủ đề giống ≥ reuse.outline-threshold → dùng lại outline, bỏ lời gọi outline;
+ *  - giống ≥ reuse.seed-threshold → lấy 1 phần outline cũ làm hạt giống, LLM chỉ sinh phần còn thiếu;
+ *  - slide cùng loại, tiêu đề giống ≥ reuse.slide-threshold và chủ đề giống ≥ reuse.seed-threshold
+ *    → dùng lại nội dung HTML, bỏ lời gọi nội dung.
+ * Chỉ mục mất khi khởi động lại (không lưu DB).
+ */
+@Component
+public class ContentReuse {
+
+    private static final Logger log = LoggerFactory.getLogger(ContentReuse.class);
+
+    @Value("${reuse.enabled:true}")
+    private boolean enabled;
+
+    @Value("${reuse.outline-threshold:0.75}")
+    private double outlineThreshold;
+
+    @Value("${reuse.seed-threshold:0.5}")
+    private double seedThreshold;
+
+    @Value("${reuse.slide-threshold:0.8}")
+    private double slideThreshold;
+
+    // Tỉ lệ tối đa slide thân bài lấy từ outline hạt giống
+    @Value("${reuse.seed-fraction:0.5}")
+    private double seedFraction;
+
+    @Value("${reuse.max-entries:5000}")
+    private int maxEntries;
+
+    // bands × rows = số hàm MinHash; 32×4 bắt được ~87% cặp có Jaccard 0.5
+    @Value("${reuse.lsh-bands:32}")
+    private int bands;
+
+    @Value("${reuse.lsh-rows:4}")
+    private int rows;
+
+    private MinHashIndex<List<SlideItem>> outlines;
+    private MinHashIndex<StoredBody> bodies;
+
+    private final AtomicLong outlineLookups = new AtomicLong();
+    private final AtomicLong outlinesReused = new AtomicLong();
+    private final AtomicLong outlinesSeeded = new AtomicLong();
+    private final AtomicLong seededSlides = new AtomicLong();
+    private final AtomicLong slideLookups = new AtomicLong();
+    private final AtomicLong slidesReused = new AtomicLong();
+
+    /** Outline tương tự; {@code reusable} = đủ giống để dùng lại nguyên vẹn. */
+    public record OutlineMatch(List<SlideItem> items, double similarity, boolean reusable) {}
+
+    private record StoredBody(String type, long[] topicShingles, String html) {}
+
+    @PostConstruct
+    void init() {
+        outlines = new MinHashIndex<>(bands, rows, maxEntries);
+        bodies = new MinHashIndex<>(bands, rows, maxEntries);
+    }
+
+    public Optional<OutlineMatch> findOutline(String topic) {
+        if (!enabled) return Optional.empty();
+        outlineLookups.incrementAndGet();
+        return outlines.query(topic, seedThreshold).stream()
+            .findFirst()
+            .map(m -> new OutlineMatch(m.value(), m.similarity(), m.similarity() >= outlineThreshold));
+    }
+
+    /** Số slide thân bài tối đa được lấy từ outline hạt giống cho deck {@code count} slide. */
+    public int seedLimit(int count) {
+        return (int) Math.floor(Math.max(0, count - 2) * seedFraction);
+    }
+
+    public void recordOutlineReused(String topic, OutlineMatch match) {
+        outlinesReused.incrementAndGet();
+        LlmCallEvent.cacheHit(LlmCallType.OUTLINE.name());
+        log.info("Dùng lại outline (giống {}%) cho \"{}\"", Math.round(match.similarity() * 100), topic);
+    }
+
+    public void recordOutlineSeeded(String topic, OutlineMatch match, int slides) {
+        outlinesSeeded.incrementAndGet();
+        seededSlides.addAndGet(slides);
+        log.info("Outline hạt giống (giống {}%, {} slide) cho \"{}\"", Math.round(match.similarity() * 100), slides, topic);
+    }
+
+    public void rememberOutline(String topic, List<SlideItem> outline) {
+        if (enabled && outline != null && !outline.isEmpty()) outlines.put(topic, List.copyOf(outline));
+    }
+
+    /** Nội dung HTML của slide cùng loại, tiêu đề gần giống, thuộc chủ đề gần giống. */
+    public Optional<String> findSlideBody(String topic, String title, String type) {
+        if (!enabled) return Optional.empty();
+        slideLookups.incrementAndGet();
+        long[] topicShingles = MinHashIndex.shingles(topic);
+        for (MinHashIndex.Match<StoredBody> m : bodies.query(title, slideThreshold)) {
+            StoredBody b = m.value();
+            if (b.type().equals(type) && MinHashIndex.jaccard(topicShingles, b.topicShingles()) >= seedThreshold) {
+                slidesReused.incrementAndGet();
+                LlmCallEvent.cacheHit(LlmCallType.SLIDE_BODY.name());
+                return Optional.of(b.html());
+            }
+        }
+        return Optional.empty();
+    }
+
+    public void rememberSlideBody(String topic, String title, String type, String html) {
+        if (enabled && html != null && !html.isBlank()) {
+            bodies.put(title, new StoredBody(type, MinHashIndex.shingles(topic), html));
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long oLookups = outlineLookups.get(), oReused = outlinesReused.get();
+        long sLookups = slideLookups.get(), sReused = slidesReused.get();
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("enabled", enabled);
+        m.put("outlineLookups", oLookups);
+        m.put("outlinesReused", oReused);
+        m.put("outlinesSeeded", outlinesSeeded.get());
+        m.put("seededSlides", seededSlides.get());
+        m.put("outlineReuseRatio", oLookups == 0 ? 0.0 : (double) oReused / oLookups);
+        m.put("slideLookups", sLookups);
+        m.put("slidesReused", sReused);
+        m.put("slideReuseRatio", sLookups == 0 ? 0.0 : (double) sReused / sLookups);
+        m.put("llmCallsSaved", oReused + sReused);
+        m.put("indexedOutlines", outlines.size());
+        m.put("indexedSlides", bodies.size());
+        return m;
+    }
+}
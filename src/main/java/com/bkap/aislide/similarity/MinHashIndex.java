@@ -0,0 +1,197 @@
+// src/main/java/com/bkap/aislide/similarity/MinHashIndex.java
+package com.bkap.aislide.similarity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.bkap.aislide.util.TextNormalizer;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * Chỉ mục gần đúng trong bộ nhớ: shingle = token đơn + cặp token liền kề (đã bỏ dấu),
+ * chữ ký MinHash {@code bands × rows} hàm băm, LSH theo band để lấy ứng viên,
+ * rồi chấm điểm bằng Jaccard chính xác trên tập shingle đã lưu.
+ * Giới hạn {@code capacity} mục, đầy thì bỏ mục cũ nhất. An toàn đa luồng.
+ */
+public final class MinHashIndex<T> {
+
+    private static final HashFunction MURMUR = Hashing.murmur3_128();
+
+    /** Kết quả tìm kiếm; {@code similarity} là Jaccard chính xác trên shingle. */
+    public record Match<T>(T value, double similarity, long[] shingles) {}
+
+    private record Entry<T>(long id, T value, long[] shingles, long[] bandKeys) {}
+
+    private final int bands;
+    private final int rows;
+    private final int capacity;
+    private final long[] seeds;
+
+    private final Map<Long, Entry<T>> entries = new HashMap<>();
+    private final Map<Long, Set<Long>> buckets = new HashMap<>();
+    private final Deque<Long> order = new ArrayDeque<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long nextId;
+
+    public MinHashIndex(int bands, int rows, int capacity) {
+        if (bands < 1 || rows < 1 || capacity < 1) {
+            throw new IllegalArgumentException("bands/rows/capacity phải > 0");
+        }
+        this.bands = bands;
+        this.rows = rows;
+        this.capacity = capacity;
+        this.seeds = new long[bands * rows];
+        long s = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < seeds.length; i++) {
+            s = mix(s + i);
+            seeds[i] = s;
+        }
+    }
+
+    /** Tập shingle (đã băm, sắp xếp, không trùng) của 1 đoạn văn bản. */
+    public static long[] shingles(String text) {
+        List<String> tokens = TextNormalizer.tokens(text);
+        Set<Long> set = new HashSet<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            set.add(hash(tokens.get(i)));
+            if (i + 1 < tokens.size()) set.add(hash(tokens.get(i) + " " + tokens.get(i + 1)));
+        }
+        long[] result = new long[set.size()];
+        int k = 0;
+        for (long h : set) result[k++] = h;
+        Arrays.sort(result);
+        return result;
+    }
+
+    /** Jaccard trên 2 mảng shingle đã sắp xếp (merge tuyến tính). */
+    public static double jaccard(long[] a, long[] b) {
+        if (a.length == 0 && b.length == 0) return 0;
+        int i = 0, j = 0, inter = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) { inter++; i++; j++; }
+            else if (a[i] < b[j]) i++;
+            else j++;
+        }
+        return (double) inter / (a.length + b.length - inter);
+    }
+
+    /** Thêm mục; nếu đã có mục trùng hoàn toàn shingle thì thay giá trị. */
+    public void put(String text, T value) {
+        long[] sh = shingles(text);
+        if (sh.length == 0) return;
+        long[] keys = bandKeys(signature(sh));
+
+        lock.writeLock().lock();
+        try {
+            for (Long id : candidates(keys)) {
+                Entry<T> e = entries.get(id);
+                if (Arrays.equals(e.shingles(), sh)) {
+                    remove(id);
+                    break;
+                }
+            }
+            long id = nextId++;
+            entries.put(id, new Entry<>(id, value, sh, keys));
+            for (long k : keys) buckets.computeIfAbsent(k, x -> new HashSet<>()).add(id);
+            order.addLast(id);
+            while (entries.size() > capacity) remove(order.peekFirst());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Các mục có Jaccard ≥ {@code minSimilarity}, giống nhất trước. */
+    public List<Match<T>> query(String text, double minSimilarity) {
+        long[] sh = shingles(text);
+        if (sh.length == 0) return List.of();
+        long[] keys = bandKeys(signature(sh));
+
+        List<Match<T>> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Long id : candidates(keys)) {
+                Entry<T> e = entries.get(id);
+                double sim = jaccard(sh, e.shingles());
+                if (sim >= minSimilarity) result.add(new Match<>(e.value(), sim, e.shingles()));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.sort(Comparator.comparingDouble((Match<T> m) -> m.similarity()).reversed());
+        return result;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Set<Long> candidates(long[] keys) {
+        Set<Long> ids = new HashSet<>();
+        for (long k : keys) {
+            Set<Long> b = buckets.get(k);
+            if (b != null) ids.addAll(b);
+        }
+        return ids;
+    }
+
+    private void remove(Long id) {
+        Entry<T> e = entries.remove(id);
+        if (e == null) return;
+        order.remove(id);
+        for (long k : e.bandKeys()) {
+            Set<Long> b = buckets.get(k);
+            if (b != null && b.remove(id) && b.isEmpty()) buckets.remove(k);
+        }
+    }
+
+    private long[] signature(long[] shingles) {
+        long[] sig = new long[seeds.length];
+        Arrays.fill(sig, Long.MAX_VALUE);
+        for (long sh : shingles) {
+            for (int i = 0; i < seeds.length; i++) {
+                long h = mix(sh ^ seeds[i]);
+                if (h < sig[i]) sig[i] = h;
+            }
+        }
+        return sig;
+    }
+
+    /** 1 khóa cho mỗi band = băm (chỉ số band, các hàng của band). */
+    private long[] bandKeys(long[] sig) {
+        long[] keys = new long[bands];
+        for (int b = 0; b < bands; b++) {
+            long k = mix(b + 1L);
+            for (int r = 0; r < rows; r++) k = mix(k ^ sig[b * rows + r]);
+            keys[b] = k;
+        }
+        return keys;
+    }
+
+    private static long hash(String s) {
+        return MURMUR.hashString(s, StandardCharsets.UTF_8).asLong();
+    }
+
+    // splitmix64
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,62 @@
+// src/main/java/com/bkap/aislide/template/CompiledTemplate.java
+package com.bkap.aislide.template;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Template đã biên dịch sẵn: tách 1 lần thành các đoạn literal + tên placeholder {{name}}.
+ * Render chỉ là nối chuỗi, không regex, không parse lại.
+ */
+public final class CompiledTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final String[] literals; // luôn = keys.length + 1
+    private final String[] keys;
+    private final int literalLength;
+
+    private CompiledTemplate(String[] literals, String[] keys) {
+        this.literals = literals;
+        this.keys = keys;
+        int len = 0;
+        for (String l : literals) len += l.length();
+        this.literalLength = len;
+    }
+
+    public static CompiledTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        int pos = 0;
+        while (true) {
+            int start = source.indexOf(OPEN, pos);
+            int end = start < 0 ? -1 : source.indexOf(CLOSE, start + OPEN.length());
+            if (start < 0 || end < 0) {
+                literals.add(source.substring(pos));
+                break;
+            }
+            literals.add(source.substring(pos, start));
+            keys.add(source.substring(start + OPEN.length(), end).trim());
+            pos = end + CLOSE.length();
+        }
+        return new CompiledTemplate(literals.toArray(String[]::new), keys.toArray(String[]::new));
+    }
+
+    /** Ghi kết quả vào {@code out}; placeholder không có giá trị → chuỗi rỗng. */
+    public void renderTo(StringBuilder out, Map<String, String> values) {
+        out.append(literals[0]);
+        for (int i = 0; i < keys.length; i++) {
+            String v = values.get(keys[i]);
+            if (v != null) out.append(v);
+            out.append(literals[i + 1]);
+        }
+    }
+
+    public String render(Map<String, String> values) {
+        StringBuilder out = new StringBuilder(literalLength + 256);
+        renderTo(out, values);
+        return out.toString();
+    }
+}
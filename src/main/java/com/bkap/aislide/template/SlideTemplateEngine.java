@@ -0,0 +1,135 @@
+// src/main/java/com/bkap/aislide/template/SlideTemplateEngine.java
+package com.bkap.aislide.template;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import com.bkap.aislide.dto.SlideContent;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Nạp các theme trong classpath:slide-themes/{theme}/ 1 lần lúc khởi động,
+ * biên dịch thành {@link CompiledTemplate} và giữ trong bộ nhớ.
+ *
+ * Cấu trúc 1 theme:
+ *  - document.html : khung tài liệu
+ *  - slide.html    : layout mặc định cho mọi loại slide
+ *  - TITLE.html, BULLET.html, IMAGE.html, CTA.html : (tùy chọn) layout riêng theo loại
+ *
+ * Placeholder của layout: {{index}}, {{type}}, {{title}}, {{content}}, {{image}}, {{degraded}}.
+ * Placeholder của document: {{title}}, {{subject}} (danh sách slide rút gọn), {{slides}}.
+ */
+@Component
+public class SlideTemplateEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(SlideTemplateEngine.class);
+
+    private static final String ROOT = "slide-themes/";
+    private static final List<String> TYPES = List.of("TITLE", "BULLET", "IMAGE", "CTA");
+    private static final String DEGRADED_MARK = "<div class=\"degraded-mark\">Nội dung rút gọn</div>";
+
+    @Value("${slide.default-theme:default}")
+    private String defaultTheme;
+
+    private final Map<String, SlideTheme> themes = new ConcurrentHashMap<>();
+    private final PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+
+    @PostConstruct
+    public void init() throws IOException {
+        for (Resource doc : resolver.getResources("classpath*:" + ROOT + "*/document.html")) {
+            String url = doc.getURL().toString();
+            String path = url.substring(0, url.length() - "/document.html".length());
+            String name = path.substring(path.lastIndexOf('/') + 1);
+            themes.put(name, loadTheme(name));
+        }
+        if (!themes.containsKey(defaultTheme)) {
+            throw new IllegalStateException("Không tìm thấy theme mặc định: " + defaultTheme);
+        }
+        log.info("Đã nạp {} theme slide: {}", themes.size(), themeNames());
+    }
+
+    private SlideTheme loadTheme(String name) throws IOException {
+        String base = "classpath:" + ROOT + name + "/";
+        CompiledTemplate document = CompiledTemplate.compile(read(resolver.getResource(base + "document.html")));
+        CompiledTemplate defaultLayout = CompiledTemplate.compile(read(resolver.getResource(base + "slide.html")));
+
+        Map<String, CompiledTemplate> layouts = new HashMap<>();
+        for (String type : TYPES) {
+            Resource r = resolver.getResource(base + type + ".html");
+            if (r.exists()) layouts.put(type, CompiledTemplate.compile(read(r)));
+        }
+        return new SlideTheme(name, document, defaultLayout, Map.copyOf(layouts));
+    }
+
+    private String read(Resource r) throws IOException {
+        try (InputStream in = r.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    public Set<String> themeNames() {
+        return new TreeSet<>(themes.keySet());
+    }
+
+    /** Theme không tồn tại (hoặc null) → dùng theme mặc định. */
+    public SlideTheme theme(String name) {
+        SlideTheme t = name == null ? null : themes.get(name.trim().toLowerCase());
+        if (t == null) {
+            if (name != null && !name.isBlank()) log.warn("Theme \"{}\" không tồn tại → dùng \"{}\"", name, defaultTheme);
+            t = themes.get(defaultTheme);
+        }
+        return t;
+    }
+
+    /** Render toàn bộ tài liệu HTML (XHTML) từ mô hình slide. */
+    public String render(String themeName, String docTitle, List<SlideContent> slides) {
+        SlideTheme theme = theme(themeName);
+
+        StringBuilder body = new StringBuilder(slides.size() * 2048);
+        Map<String, String> values = new HashMap<>();
+        List<String> degraded = new ArrayList<>();
+        for (SlideContent s : slides) {
+            values.put("index", String.valueOf(s.index() + 1));
+            values.put("type", s.type() == null ? "" : s.type().toLowerCase());
+            values.put("title", escape(s.title()));
+            values.put("content", s.contentHtml() == null ? "" : s.contentHtml());
+            values.put("image", imageTag(s));
+            values.put("degraded", s.degraded() ? DEGRADED_MARK : "");
+            theme.layoutFor(s.type()).renderTo(body, values);
+            body.append('\n');
+            if (s.degraded()) degraded.add(String.valueOf(s.index() + 1));
+        }
+
+        return theme.document().render(Map.of(
+            "title", escape(docTitle),
+            "subject", degraded.isEmpty() ? "" : "Slide rút gọn: " + String.join(", ", degraded),
+            "slides", body.toString()
+        ));
+    }
+
+    private String imageTag(SlideContent s) {
+        if (s.imageUrl() == null || s.imageUrl().isBlank()) return "";
+        return "<img src=\"" + escape(s.imageUrl()) + "\" alt=\"" + escape(s.title()) + "\" />";
+    }
+
+    private String escape(String s) {
+        if (s == null) return "";
+        return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
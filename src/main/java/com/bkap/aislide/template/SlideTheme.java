@@ -0,0 +1,17 @@
+// src/main/java/com/bkap/aislide/template/SlideTheme.java
+package com.bkap.aislide.template;
+
+import java.util.Map;
+
+/** Theme = khung tài liệu (CSS + body) + layout riêng cho từng loại slide. */
+public record SlideTheme(
+    String name,
+    CompiledTemplate document,
+    CompiledTemplate defaultLayout,
+    Map<String, CompiledTemplate> layouts
+) {
+    public CompiledTemplate layoutFor(String type) {
+        CompiledTemplate t = type == null ? null : layouts.get(type);
+        return t != null ? t : defaultLayout;
+    }
+}
@@ -0,0 +1,44 @@
+// src/main/java/com/bkap/aislide/util/Deadline.java
+package com.bkap.aislide.util;
+
+/** Mốc thời hạn tuyệt đối (monotonic) + ngân sách con cho từng bước. */
+public final class Deadline {
+
+    private final long start;
+    private final long end;
+
+    private Deadline(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    public static Deadline afterMillis(long budgetMs) {
+        long now = System.nanoTime();
+        return new Deadline(now, now + budgetMs * 1_000_000);
+    }
+
+    public long totalMs() {
+        return (end - start) / 1_000_000;
+    }
+
+    public long remainingMs() {
+        return Math.max(0, (end - System.nanoTime()) / 1_000_000);
+    }
+
+    public long elapsedMs() {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    /** Thời hạn con: {@code fraction} tổng ngân sách tính từ bây giờ, không vượt thời hạn cha. */
+    public Deadline sub(double fraction) {
+        long now = System.nanoTime();
+        long budget = (long) ((end - start) * fraction);
+        return new Deadline(now, Math.min(end, now + budget));
+    }
+
+    /** Thời hạn con kết thúc sớm hơn thời hạn cha {@code reserveMs}. */
+    public Deadline minus(long reserveMs) {
+        long now = System.nanoTime();
+        return new Deadline(now, Math.max(now, end - reserveMs * 1_000_000));
+    }
+}
@@ -0,0 +1,31 @@
+// src/main/java/com/bkap/aislide/util/KeysetCursor.java
+package com.bkap.aislide.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/** Cursor mờ cho keyset pagination trên (created_at, task_id): base64url("epochMicros|taskId"). */
+public record KeysetCursor(LocalDateTime createdAt, String taskId) {
+
+    public String encode() {
+        long micros = createdAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + createdAt.getNano() / 1_000;
+        String raw = micros + "|" + taskId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** @throws IllegalArgumentException khi cursor sai định dạng */
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            long micros = Long.parseLong(raw.substring(0, sep));
+            LocalDateTime createdAt = LocalDateTime.ofEpochSecond(
+                Math.floorDiv(micros, 1_000_000), (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+            return new KeysetCursor(createdAt, raw.substring(sep + 1));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor không hợp lệ");
+        }
+    }
+}
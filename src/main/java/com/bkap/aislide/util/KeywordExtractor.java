@@ -33,6 +33,9 @@ public class KeywordExtractor {
     @Value("${openai.model:gpt-4o-mini}")
     private String model;
 
+    @Value("${openai.base-url:https://api.openai.com}")
+    private String baseUrl;
+
     private static final Set<String> KNOWN_TOPICS = Set.of(
             "python","ai","education","nature","technology","science","business","design","music","health",
             "finance","sports","travel","food","machine learning","data science","blockchain","robot",
@@ -106,7 +109,7 @@ public class KeywordExtractor {
         headers.set("User-Agent", "BKAP-AISlide/1.0");
 
         ResponseEntity<String> res = newRestTemplate().postForEntity(
-                "https://api.openai.com/v1/chat/completions",
+                baseUrl + "/v1/chat/completions",
                 new HttpEntity<>(body, headers),
                 String.class
         );
@@ -0,0 +1,37 @@
+// src/main/java/com/bkap/aislide/util/TextNormalizer.java
+package com.bkap.aislide.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/** Bỏ dấu tiếng Việt + tách token, dùng để so khớp gần đúng (không phân biệt dấu/hoa thường). */
+public final class TextNormalizer {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}");
+    private static final Pattern NON_ALNUM = Pattern.compile("[^a-z0-9\\s]");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private TextNormalizer() {}
+
+    /** "Ứng dụng AI trong Giáo dục" → "ung dung ai trong giao duc" */
+    public static String foldAccents(String str) {
+        if (str == null) return "";
+        String s = MARKS.matcher(Normalizer.normalize(str, Normalizer.Form.NFD)).replaceAll("")
+            .replace("đ", "d").replace("Đ", "D")
+            .toLowerCase();
+        s = NON_ALNUM.matcher(s).replaceAll(" ");
+        return SPACES.matcher(s).replaceAll(" ").trim();
+    }
+
+    public static List<String> tokens(String str) {
+        String folded = foldAccents(str);
+        List<String> result = new ArrayList<>();
+        if (folded.isEmpty()) return result;
+        for (String t : folded.split(" ")) {
+            if (!t.isEmpty()) result.add(t);
+        }
+        return result;
+    }
+}
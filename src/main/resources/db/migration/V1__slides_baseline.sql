@@ -0,0 +1,25 @@
+-- Bảng slides như entity SlideGeneration hiện tại.
+-- IF NOT EXISTS: DB cũ đã được Hibernate tạo bảng (ddl-auto) → chỉ bổ sung cột còn thiếu.
+CREATE TABLE IF NOT EXISTS slides (
+    task_id         VARCHAR(255) PRIMARY KEY,
+    topic           VARCHAR(255),
+    slide_count     INTEGER,
+    theme           VARCHAR(255),
+    batch_id        VARCHAR(255),
+    status          VARCHAR(255) NOT NULL DEFAULT 'processing',
+    file_url        VARCHAR(255),
+    formats         VARCHAR(255),
+    exports         TEXT,
+    deadline_ms     INTEGER,
+    degraded_slides VARCHAR(255),
+    error_message   TEXT,
+    created_at      TIMESTAMP(6),
+    completed_at    TIMESTAMP(6)
+);
+
+ALTER TABLE slides ADD COLUMN IF NOT EXISTS theme VARCHAR(255);
+ALTER TABLE slides ADD COLUMN IF NOT EXISTS batch_id VARCHAR(255);
+ALTER TABLE slides ADD COLUMN IF NOT EXISTS formats VARCHAR(255);
+ALTER TABLE slides ADD COLUMN IF NOT EXISTS exports TEXT;
+ALTER TABLE slides ADD COLUMN IF NOT EXISTS deadline_ms INTEGER;
+ALTER TABLE slides ADD COLUMN IF NOT EXISTS degraded_slides VARCHAR(255);
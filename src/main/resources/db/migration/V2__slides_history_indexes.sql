@@ -0,0 +1,17 @@
+-- Keyset pagination lịch sử: ORDER BY created_at DESC, task_id DESC
+CREATE INDEX IF NOT EXISTS idx_slides_created_task
+    ON slides (created_at DESC, task_id DESC);
+
+-- Lọc theo status + cùng thứ tự keyset
+CREATE INDEX IF NOT EXISTS idx_slides_status_created_task
+    ON slides (status, created_at DESC, task_id DESC);
+
+-- Job đang chạy: tập nhỏ, index riêng phần (partial)
+CREATE INDEX IF NOT EXISTS idx_slides_processing
+    ON slides (created_at)
+    WHERE status = 'processing';
+
+-- Tiến độ batch (bulk API)
+CREATE INDEX IF NOT EXISTS idx_slides_batch
+    ON slides (batch_id, created_at)
+    WHERE batch_id IS NOT NULL;
@@ -0,0 +1,8 @@
+-- Thứ tự deck trong batch: saveAll cho các deck cùng created_at → cần vị trí rõ ràng
+ALTER TABLE slides ADD COLUMN IF NOT EXISTS batch_index INTEGER;
+
+-- Tiến độ batch (bulk API): ORDER BY batch_index, created_at, task_id
+DROP INDEX IF EXISTS idx_slides_batch;
+CREATE INDEX IF NOT EXISTS idx_slides_batch
+    ON slides (batch_id, batch_index, created_at, task_id)
+    WHERE batch_id IS NOT NULL;
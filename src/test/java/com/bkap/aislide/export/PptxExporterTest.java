@@ -0,0 +1,43 @@
+// src/test/java/com/bkap/aislide/export/PptxExporterTest.java
+package com.bkap.aislide.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import org.apache.poi.sl.usermodel.PictureData.PictureType;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class PptxExporterTest {
+
+    private static byte[] bytes(int... b) {
+        byte[] result = new byte[b.length];
+        for (int i = 0; i < b.length; i++) result[i] = (byte) b[i];
+        return result;
+    }
+
+    static Stream<Arguments> images() {
+        return Stream.of(
+            Arguments.of(bytes(0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A), PictureType.PNG),
+            Arguments.of(bytes(0xFF, 0xD8, 0xFF, 0xE0, 0x00, 0x10), PictureType.JPEG),
+            Arguments.of("GIF89a".getBytes(StandardCharsets.US_ASCII), PictureType.GIF),
+            Arguments.of("GIF87a".getBytes(StandardCharsets.US_ASCII), PictureType.GIF),
+            Arguments.of(bytes('B', 'M', 0x36, 0x00), PictureType.BMP),
+            // WebP, SVG, trang lỗi HTML, dữ liệu cụt → bỏ qua
+            Arguments.of("RIFF\0\0\0\0WEBPVP8 ".getBytes(StandardCharsets.US_ASCII), null),
+            Arguments.of("<svg xmlns=".getBytes(StandardCharsets.US_ASCII), null),
+            Arguments.of("<!DOCTYPE html>".getBytes(StandardCharsets.US_ASCII), null),
+            Arguments.of(bytes(0xFF, 0xD8), null),
+            Arguments.of(new byte[0], null)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("images")
+    void sniffsPictureTypeFromMagicBytes(byte[] data, PictureType expected) {
+        assertEquals(expected, PptxExporter.pictureType(data));
+    }
+}
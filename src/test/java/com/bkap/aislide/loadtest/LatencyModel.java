@@ -0,0 +1,40 @@
+// src/test/java/com/bkap/aislide/loadtest/LatencyModel.java
+package com.bkap.aislide.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Phân phối độ trễ giả lập cho stub upstream, khai báo dạng chuỗi:
+ *  - "fixed:200"            → luôn 200ms
+ *  - "uniform:100:400"      → đều trong [100, 400)
+ *  - "lognormal:800:0.6"    → trung vị 800ms, sigma 0.6 (đuôi dài giống API LLM thật)
+ */
+public record LatencyModel(Kind kind, double a, double b) {
+
+    public enum Kind { FIXED, UNIFORM, LOGNORMAL }
+
+    public static final LatencyModel NONE = new LatencyModel(Kind.FIXED, 0, 0);
+
+    public static LatencyModel parse(String spec) {
+        String[] p = spec.trim().split(":");
+        Kind kind = Kind.valueOf(p[0].trim().toUpperCase());
+        double a = p.length > 1 ? Double.parseDouble(p[1]) : 0;
+        double b = p.length > 2 ? Double.parseDouble(p[2]) : 0;
+        return new LatencyModel(kind, a, b);
+    }
+
+    public long sampleMs() {
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        double ms = switch (kind) {
+            case FIXED -> a;
+            case UNIFORM -> a + r.nextDouble() * Math.max(0, b - a);
+            case LOGNORMAL -> a * Math.exp(b * r.nextGaussian());
+        };
+        return Math.max(0, Math.round(ms));
+    }
+
+    @Override
+    public String toString() {
+        return kind.name().toLowerCase() + ":" + a + (kind == Kind.FIXED ? "" : ":" + b);
+    }
+}
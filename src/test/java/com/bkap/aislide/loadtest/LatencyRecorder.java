@@ -0,0 +1,58 @@
+// src/test/java/com/bkap/aislide/loadtest/LatencyRecorder.java
+package com.bkap.aislide.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Độ trễ theo endpoint (giữ toàn bộ mẫu, đủ cho vài chục nghìn request của 1 lần chạy). */
+public final class LatencyRecorder {
+
+    public record Summary(String endpoint, long count, long errors, long p50, long p95, long p99, long max) {}
+
+    private static final class Series {
+        final ConcurrentLinkedQueue<Long> samples = new ConcurrentLinkedQueue<>();
+        final AtomicLong errors = new AtomicLong();
+    }
+
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, long ms, boolean ok) {
+        Series s = series.computeIfAbsent(endpoint, k -> new Series());
+        s.samples.add(ms);
+        if (!ok) s.errors.incrementAndGet();
+    }
+
+    public long count() {
+        return series.values().stream().mapToLong(s -> s.samples.size()).sum();
+    }
+
+    public List<Summary> summaries() {
+        List<Summary> out = new ArrayList<>();
+        new LinkedHashMap<>(series).forEach((name, s) -> {
+            long[] v = s.samples.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(v);
+            out.add(new Summary(name, v.length, s.errors.get(),
+                percentile(v, 0.50), percentile(v, 0.95), percentile(v, 0.99), v.length == 0 ? 0 : v[v.length - 1]));
+        });
+        out.sort((a, b) -> a.endpoint().compareTo(b.endpoint()));
+        return out;
+    }
+
+    public Summary summary(String endpoint) {
+        return summaries().stream().filter(s -> s.endpoint().equals(endpoint)).findFirst()
+            .orElse(new Summary(endpoint, 0, 0, 0, 0, 0, 0));
+    }
+
+    // Nearest-rank
+    static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int idx = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, idx))];
+    }
+}
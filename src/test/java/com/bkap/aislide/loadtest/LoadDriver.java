@@ -0,0 +1,214 @@
+// src/test/java/com/bkap/aislide/loadtest/LoadDriver.java
+package com.bkap.aislide.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Virtual user gọi API như frontend: POST /generate → poll GET /{taskId} đến khi hết "processing"
+ * → tải file PDF. Chủ đề lặp lại/gần giống nhau: khi bật -Dloadtest.reuse=true, ContentReuse có việc làm.
+ * 429 → chờ theo Retry-After rồi thử lại (không tính là deck lỗi).
+ */
+public final class LoadDriver {
+
+    public static final String DECK = "deck (end-to-end)";
+    public static final String GENERATE = "POST /api/slides/generate";
+    public static final String STATUS = "GET /api/slides/{taskId}";
+    public static final String DOWNLOAD = "GET /api/slides/download/{file}";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final List<String> TOPICS = List.of(
+        "Trí tuệ nhân tạo trong giáo dục",
+        "Ứng dụng trí tuệ nhân tạo trong giáo dục",
+        "Biến đổi khí hậu và nông nghiệp",
+        "Tác động của biến đổi khí hậu tới nông nghiệp",
+        "Kỹ năng thuyết trình hiệu quả",
+        "Chuyển đổi số cho doanh nghiệp nhỏ",
+        "An toàn thông tin cho nhân viên văn phòng",
+        "Marketing trên mạng xã hội");
+
+    /** Tham số 1 lần chạy. */
+    public record Options(
+        int users,
+        Duration duration,
+        Duration rampUp,
+        Duration thinkTime,
+        Duration pollInterval,
+        Duration deckTimeout,
+        int slideCount
+    ) {}
+
+    private final String baseUrl;
+    private final Options options;
+    private final LatencyRecorder recorder;
+    private final HttpClient http = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+
+    public LoadDriver(String baseUrl, Options options, LatencyRecorder recorder) {
+        this.baseUrl = baseUrl;
+        this.options = options;
+        this.recorder = recorder;
+    }
+
+    /** Chạy đến hết {@code duration}; deck đang dở khi hết giờ vẫn được chờ xong (tối đa deckTimeout). */
+    public void run() throws InterruptedException {
+        long endAt = System.nanoTime() + options.duration().toNanos();
+        ExecutorService users = Executors.newFixedThreadPool(options.users(), r -> {
+            Thread t = new Thread(r, "loadtest-user");
+            t.setDaemon(true);
+            return t;
+        });
+        long rampStep = options.users() <= 1 ? 0 : options.rampUp().toMillis() / (options.users() - 1);
+        for (int i = 0; i < options.users(); i++) {
+            int user = i;
+            long delay = rampStep * i;
+            users.execute(() -> userLoop(user, delay, endAt));
+        }
+        users.shutdown();
+        users.awaitTermination(options.duration().plus(options.deckTimeout()).plusSeconds(30).toMillis(), TimeUnit.MILLISECONDS);
+        users.shutdownNow();
+    }
+
+    public Map<String, Object> counters() {
+        return Map.of(
+            "completed", completed.get(),
+            "failed", failed.get(),
+            "timedOut", timedOut.get(),
+            "throttled429", throttled.get());
+    }
+
+    public long completed() {
+        return completed.get();
+    }
+
+    static String apiKey(int user) {
+        return "loadtest-user-" + user;
+    }
+
+    static List<String> apiKeys(int users) {
+        return IntStream.range(0, users).mapToObj(LoadDriver::apiKey).toList();
+    }
+
+    private void userLoop(int user, long delayMs, long endAt) {
+        sleep(delayMs);
+        String apiKey = apiKey(user);
+        while (System.nanoTime() < endAt && !Thread.currentThread().isInterrupted()) {
+            String topic = TOPICS.get(ThreadLocalRandom.current().nextInt(TOPICS.size()));
+            try {
+                oneDeck(apiKey, topic);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                failed.incrementAndGet();
+            }
+            sleep(jitter(options.thinkTime().toMillis()));
+        }
+    }
+
+    private void oneDeck(String apiKey, String topic) throws IOException, InterruptedException {
+        long deckStart = System.nanoTime();
+        String body = MAPPER.writeValueAsString(Map.of("topic", topic, "slideCount", options.slideCount()));
+
+        String taskId = null;
+        while (taskId == null) {
+            long t0 = System.nanoTime();
+            HttpResponse<String> res = send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/slides/generate"))
+                .header("Content-Type", "application/json")
+                .header("X-API-Key", apiKey)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+            recorder.record(GENERATE, elapsedMs(t0), res.statusCode() == 200 || res.statusCode() == 429);
+            if (res.statusCode() == 429) {
+                throttled.incrementAndGet();
+                sleep(1000L * res.headers().firstValue("Retry-After").map(Long::parseLong).orElse(1L));
+                continue;
+            }
+            if (res.statusCode() != 200) {
+                failed.incrementAndGet();
+                return;
+            }
+            taskId = MAPPER.readTree(res.body()).path("data").path("taskId").asText(null);
+            if (taskId == null) {
+                failed.incrementAndGet();
+                return;
+            }
+        }
+
+        long deadline = deckStart + options.deckTimeout().toNanos();
+        JsonNode slide;
+        while (true) {
+            long t0 = System.nanoTime();
+            HttpResponse<String> res = send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/slides/" + taskId)).GET().build());
+            recorder.record(STATUS, elapsedMs(t0), res.statusCode() == 200);
+            slide = res.statusCode() == 200 ? MAPPER.readTree(res.body()) : null;
+            if (slide != null && !"processing".equals(slide.path("status").asText())) break;
+            if (System.nanoTime() > deadline) {
+                timedOut.incrementAndGet();
+                return;
+            }
+            sleep(options.pollInterval().toMillis());
+        }
+
+        if (!"completed".equals(slide.path("status").asText())) {
+            failed.incrementAndGet();
+            recorder.record(DECK, elapsedMs(deckStart), false);
+            return;
+        }
+
+        String fileUrl = slide.path("fileUrl").asText("");
+        long t0 = System.nanoTime();
+        HttpResponse<byte[]> file = http.send(HttpRequest.newBuilder(URI.create(baseUrl + fileUrl)).GET().build(),
+            HttpResponse.BodyHandlers.ofByteArray());
+        boolean ok = file.statusCode() == 200 && file.body().length > 0;
+        recorder.record(DOWNLOAD, elapsedMs(t0), ok);
+
+        recorder.record(DECK, elapsedMs(deckStart), ok);
+        if (ok) completed.incrementAndGet();
+        else failed.incrementAndGet();
+    }
+
+    private HttpResponse<String> send(HttpRequest req) throws IOException, InterruptedException {
+        return http.send(req, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    // ±50% để các user không gửi request đồng loạt
+    private static long jitter(long ms) {
+        return ms <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ms / 2, ms + ms / 2 + 1);
+    }
+
+    private static void sleep(long ms) {
+        if (ms <= 0) return;
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
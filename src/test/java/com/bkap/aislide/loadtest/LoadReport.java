@@ -0,0 +1,85 @@
+// src/test/java/com/bkap/aislide/loadtest/LoadReport.java
+package com.bkap.aislide.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/** In bảng kết quả ra console và ghi JSON vào target/loadtest/ để so sánh giữa các lần chạy. */
+public final class LoadReport {
+
+    private final Map<String, Object> settings;
+    private final Duration elapsed;
+    private final LatencyRecorder recorder;
+    private final Map<String, Object> decks;
+    private final Map<String, Object> resources;
+    private final Map<String, Object> upstream;
+    private final Map<String, Object> reuse;
+
+    public LoadReport(Map<String, Object> settings, Duration elapsed, LatencyRecorder recorder,
+                      Map<String, Object> decks, Map<String, Object> resources,
+                      Map<String, Object> upstream, Map<String, Object> reuse) {
+        this.settings = settings;
+        this.elapsed = elapsed;
+        this.recorder = recorder;
+        this.decks = decks;
+        this.resources = resources;
+        this.upstream = upstream;
+        this.reuse = reuse;
+    }
+
+    public String format() {
+        double secs = Math.max(0.001, elapsed.toMillis() / 1000.0);
+        long completed = ((Number) decks.get("completed")).longValue();
+
+        StringBuilder sb = new StringBuilder("\n===== LOAD TEST =====\n");
+        sb.append("Cấu hình : ").append(settings).append('\n');
+        sb.append(String.format("Thời gian: %.1fs | deck/s: %.3f | req/s: %.1f%n",
+            secs, completed / secs, recorder.count() / secs));
+        sb.append("Deck     : ").append(decks).append('\n');
+        sb.append(String.format("%-34s %7s %6s %8s %8s %8s %8s%n", "endpoint", "count", "err", "p50", "p95", "p99", "max"));
+        for (LatencyRecorder.Summary s : recorder.summaries()) {
+            sb.append(String.format("%-34s %7d %6d %8d %8d %8d %8d%n",
+                s.endpoint(), s.count(), s.errors(), s.p50(), s.p95(), s.p99(), s.max()));
+        }
+        sb.append("JVM      : ").append(resources).append(" (app + stub + driver)\n");
+        sb.append("Upstream : ").append(upstream).append('\n');
+        // Số lời gọi LLM được ContentReuse thay thế: khác 0 nghĩa là số liệu có lẫn cache hit
+        sb.append("Reuse    : outline ").append(reuse.get("outlinesReused")).append('/').append(reuse.get("outlineLookups"))
+            .append(" | slide ").append(reuse.get("slidesReused")).append('/').append(reuse.get("slideLookups"))
+            .append(" | enabled=").append(reuse.get("enabled")).append('\n');
+        return sb.toString();
+    }
+
+    public Path writeJson(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        Path file = dir.resolve("report-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("settings", settings);
+        json.put("elapsedMs", elapsed.toMillis());
+        json.put("decks", decks);
+        List<LatencyRecorder.Summary> endpoints = recorder.summaries();
+        json.put("endpoints", endpoints);
+        json.put("jvm", resources);
+        json.put("upstream", upstream);
+        json.put("reuse", reuse);
+
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), json);
+        return file;
+    }
+
+    public static Path defaultDir() {
+        return Paths.get("target", "loadtest");
+    }
+}
@@ -0,0 +1,114 @@
+// src/test/java/com/bkap/aislide/loadtest/PipelineLoadTest.java
+package com.bkap.aislide.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.bkap.aislide.similarity.ContentReuse;
+
+/**
+ * Load test toàn pipeline (API → hàng đợi → LLM → ảnh → PDF → tải file) không cần mạng:
+ * OpenAI, Google CSE và Unsplash được thay bằng {@link StubUpstreamServer}, DB là H2 (profile loadtest).
+ *
+ * Chỉ chạy khi bật rõ ràng:
+ *   mvn test -Dtest=PipelineLoadTest -Dloadtest=true -Dloadtest.users=16 -Dloadtest.duration-s=120
+ * Tham số (-D): loadtest.users, loadtest.duration-s, loadtest.ramp-up-s, loadtest.think-ms, loadtest.slides,
+ * loadtest.llm-latency / loadtest.image-latency ("fixed:500", "uniform:200:1500", "lognormal:800:0.6"),
+ * loadtest.rate-429, loadtest.rate-5xx, loadtest.truncated-rate, loadtest.max-p95-ms (ngưỡng deck p95, tùy chọn),
+ * loadtest.reuse (mặc định false: mọi outline / nội dung đều qua LLM stub, không đo cache hit của ContentReuse).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("loadtest")
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class PipelineLoadTest {
+
+    private static StubUpstreamServer stub;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ContentReuse reuse;
+
+    @DynamicPropertySource
+    static void upstream(DynamicPropertyRegistry registry) throws Exception {
+        stub = new StubUpstreamServer(0, new StubUpstreamServer.Config(
+            LatencyModel.parse(prop("loadtest.llm-latency", "lognormal:800:0.6")),
+            LatencyModel.parse(prop("loadtest.image-latency", "uniform:20:120")),
+            Double.parseDouble(prop("loadtest.rate-429", "0.02")),
+            Double.parseDouble(prop("loadtest.rate-5xx", "0.01")),
+            Double.parseDouble(prop("loadtest.truncated-rate", "0.05"))));
+        registry.add("openai.base-url", stub::baseUrl);
+        registry.add("image.unsplash-base-url", stub::baseUrl);
+        registry.add("google.cse.base-url", stub::baseUrl);
+        registry.add("reuse.enabled", () -> prop("loadtest.reuse", "false"));
+        // Mỗi virtual user 1 key hợp lệ → mỗi user là 1 client riêng trong fair queuing
+        registry.add("quota.api-keys", () -> String.join(",", LoadDriver.apiKeys(Integer.parseInt(prop("loadtest.users", "8")))));
+    }
+
+    @AfterAll
+    static void stopStub() {
+        if (stub != null) stub.close();
+    }
+
+    @Test
+    void pipelineUnderLoad() throws Exception {
+        LoadDriver.Options options = new LoadDriver.Options(
+            Integer.parseInt(prop("loadtest.users", "8")),
+            Duration.ofSeconds(Long.parseLong(prop("loadtest.duration-s", "60"))),
+            Duration.ofSeconds(Long.parseLong(prop("loadtest.ramp-up-s", "10"))),
+            Duration.ofMillis(Long.parseLong(prop("loadtest.think-ms", "2000"))),
+            Duration.ofMillis(500),
+            Duration.ofMinutes(3),
+            Integer.parseInt(prop("loadtest.slides", "8")));
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("users", options.users());
+        settings.put("durationS", options.duration().toSeconds());
+        settings.put("slides", options.slideCount());
+        settings.put("llmLatency", prop("loadtest.llm-latency", "lognormal:800:0.6"));
+        settings.put("reuse", prop("loadtest.reuse", "false"));
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        LoadDriver driver = new LoadDriver("http://127.0.0.1:" + port, options, recorder);
+
+        long start = System.nanoTime();
+        Map<String, Object> resources;
+        try (ResourceSampler sampler = new ResourceSampler().start(1000)) {
+            driver.run();
+            resources = sampler.stats();
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        LoadReport report = new LoadReport(settings, elapsed, recorder, driver.counters(), resources,
+            stub.stats(), reuse.stats());
+        System.out.println(report.format());
+        Path json = report.writeJson(LoadReport.defaultDir());
+        System.out.println("Báo cáo JSON: " + json.toAbsolutePath());
+
+        assertTrue(driver.completed() > 0, "Không deck nào hoàn thành");
+        String maxP95 = System.getProperty("loadtest.max-p95-ms");
+        if (maxP95 != null) {
+            long p95 = recorder.summary(LoadDriver.DECK).p95();
+            assertTrue(p95 <= Long.parseLong(maxP95), "Deck p95 " + p95 + "ms > " + maxP95 + "ms");
+        }
+    }
+
+    private static String prop(String name, String def) {
+        return System.getProperty(name, def);
+    }
+}
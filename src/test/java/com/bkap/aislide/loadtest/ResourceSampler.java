@@ -0,0 +1,63 @@
+// src/test/java/com/bkap/aislide/loadtest/ResourceSampler.java
+package com.bkap.aislide.loadtest;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lấy mẫu heap đã dùng + số thread định kỳ.
+ * App, stub và driver chạy chung 1 JVM nên số liệu là tổng của cả ba — dùng để so sánh giữa các lần chạy,
+ * không phải con số tuyệt đối của riêng app.
+ */
+public final class ResourceSampler implements AutoCloseable {
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "loadtest-sampler");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private long samples;
+    private long heapSum;
+    private long heapPeak;
+    private long threadSum;
+    private int threadPeak;
+
+    public ResourceSampler start(long intervalMs) {
+        timer.scheduleAtFixedRate(this::sample, 0, intervalMs, TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    private synchronized void sample() {
+        long heap = memory.getHeapMemoryUsage().getUsed();
+        int count = threads.getThreadCount();
+        samples++;
+        heapSum += heap;
+        heapPeak = Math.max(heapPeak, heap);
+        threadSum += count;
+        threadPeak = Math.max(threadPeak, count);
+    }
+
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("samples", samples);
+        m.put("heapAvgMb", samples == 0 ? 0 : heapSum / samples / (1024 * 1024));
+        m.put("heapPeakMb", heapPeak / (1024 * 1024));
+        m.put("threadsAvg", samples == 0 ? 0 : threadSum / samples);
+        m.put("threadsPeak", threadPeak);
+        return m;
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+    }
+}
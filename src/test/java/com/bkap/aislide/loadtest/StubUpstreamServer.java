@@ -0,0 +1,290 @@
+// src/test/java/com/bkap/aislide/loadtest/StubUpstreamServer.java
+package com.bkap.aislide.loadtest;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.imageio.ImageIO;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Upstream giả chạy trên JDK HttpServer, thay cho Internet khi load test:
+ *  - POST /v1/chat/completions: trả lời theo loại prompt của AiService (outline JSON, nội dung slide,
+ *    từ khóa ảnh), có usage token; hỗ trợ "stream": true (SSE); độ trễ theo LatencyModel;
+ *    tiêm lỗi 429 / 5xx và JSON outline bị cắt cụt theo tỉ lệ;
+ *  - GET /random/**, /800x600/**, /img/** (thay source.unsplash.com): ảnh PNG dựng sẵn;
+ *  - GET /customsearch/v1 (thay Google CSE): items trỏ về ảnh của chính stub.
+ */
+public final class StubUpstreamServer implements AutoCloseable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Pattern OUTLINE_COUNT = Pattern.compile("TẠO CHÍNH XÁC (\\d+) SLIDE");
+    private static final Pattern FOLLOWUP_COUNT = Pattern.compile("BỔ SUNG CHÍNH XÁC (\\d+) SLIDE");
+
+    // Tiêu đề khác từ vựng nhau để không bị OutlineEngine loại vì trùng gần đúng
+    private static final List<String> TITLES = List.of(
+        "Bức Tranh Toàn Cảnh", "Nền Tảng Cốt Lõi", "Minh Họa Trực Quan", "Động Lực Thay Đổi",
+        "Giá Trị Mang Lại", "Câu Chuyện Điển Hình", "Rào Cản Phổ Biến", "Giải Pháp Khả Thi",
+        "Lộ Trình Triển Khai", "Công Cụ Đắc Lực", "Bài Học Kinh Nghiệm", "Cạm Bẫy Nên Tránh",
+        "Xu Thế Sắp Tới", "Quan Điểm Trái Chiều", "Số Liệu Biết Nói", "Nguồn Học Thêm",
+        "Hỏi Đáp Mở Rộng", "Điểm Mấu Chốt", "Tầm Nhìn Dài Hạn", "Hành Động Cụ Thể");
+
+    /** Cấu hình hành vi stub. */
+    public record Config(
+        LatencyModel chatLatency,
+        LatencyModel imageLatency,
+        double rate429,
+        double rate5xx,
+        double truncatedOutlineRate
+    ) {
+        public static Config defaults() {
+            return new Config(LatencyModel.parse("lognormal:800:0.6"), LatencyModel.parse("uniform:20:120"), 0.02, 0.01, 0.05);
+        }
+    }
+
+    private final Config config;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "stub-upstream");
+        t.setDaemon(true);
+        return t;
+    });
+    private final byte[] png;
+
+    private final AtomicLong chatCalls = new AtomicLong();
+    private final AtomicLong streamCalls = new AtomicLong();
+    private final AtomicLong injected429 = new AtomicLong();
+    private final AtomicLong injected5xx = new AtomicLong();
+    private final AtomicLong truncated = new AtomicLong();
+    private final AtomicLong imageCalls = new AtomicLong();
+    private final AtomicLong searchCalls = new AtomicLong();
+
+    public StubUpstreamServer(int port, Config config) throws IOException {
+        this.config = config;
+        this.png = renderPng();
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 256);
+        server.setExecutor(executor);
+        server.createContext("/v1/chat/completions", this::chat);
+        server.createContext("/customsearch/v1", this::search);
+        server.createContext("/random/", this::image);
+        server.createContext("/800x600/", this::image);
+        server.createContext("/img/", this::image);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("chatCalls", chatCalls.get());
+        m.put("streamCalls", streamCalls.get());
+        m.put("injected429", injected429.get());
+        m.put("injected5xx", injected5xx.get());
+        m.put("truncatedOutlines", truncated.get());
+        m.put("imageCalls", imageCalls.get());
+        m.put("searchCalls", searchCalls.get());
+        m.put("config", config.toString());
+        return m;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    // ---------- OpenAI chat completions ----------
+
+    private void chat(HttpExchange ex) throws IOException {
+        try (ex) {
+            chatCalls.incrementAndGet();
+            JsonNode req = MAPPER.readTree(ex.getRequestBody());
+            String prompt = req.path("messages").path(0).path("content").asText("");
+            String model = req.path("model").asText("stub");
+            boolean stream = req.path("stream").asBoolean(false);
+
+            long latency = config.chatLatency().sampleMs();
+            ThreadLocalRandom r = ThreadLocalRandom.current();
+            double roll = r.nextDouble();
+            if (roll < config.rate429()) {
+                injected429.incrementAndGet();
+                sleep(Math.min(latency, 50));
+                ex.getResponseHeaders().set("Retry-After", "1");
+                sendJson(ex, 429, "{\"error\":{\"type\":\"rate_limit_exceeded\",\"message\":\"stub 429\"}}");
+                return;
+            }
+            if (roll < config.rate429() + config.rate5xx()) {
+                injected5xx.incrementAndGet();
+                sleep(latency);
+                sendJson(ex, r.nextBoolean() ? 500 : 503, "{\"error\":{\"type\":\"server_error\",\"message\":\"stub 5xx\"}}");
+                return;
+            }
+
+            String content = answer(prompt);
+            int promptTokens = Math.max(1, prompt.length() / 4);
+            int completionTokens = Math.max(1, content.length() / 4);
+
+            if (stream) {
+                streamCalls.incrementAndGet();
+                stream(ex, model, content, latency);
+                return;
+            }
+
+            sleep(latency);
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("id", "chatcmpl-stub-" + chatCalls.get());
+            body.put("object", "chat.completion");
+            body.put("model", model);
+            body.put("choices", List.of(Map.of(
+                "index", 0,
+                "message", Map.of("role", "assistant", "content", content),
+                "finish_reason", "stop")));
+            body.put("usage", Map.of(
+                "prompt_tokens", promptTokens,
+                "completion_tokens", completionTokens,
+                "total_tokens", promptTokens + completionTokens));
+            sendJson(ex, 200, MAPPER.writeValueAsString(body));
+        }
+    }
+
+    /** SSE giống OpenAI: token đầu sau ~1/3 độ trễ, phần còn lại rải đều, kết thúc bằng [DONE]. */
+    private void stream(HttpExchange ex, String model, String content, long latency) throws IOException {
+        ex.getResponseHeaders().set("Content-Type", "text/event-stream");
+        ex.sendResponseHeaders(200, 0);
+        List<String> chunks = new ArrayList<>();
+        for (int i = 0; i < content.length(); i += 16) chunks.add(content.substring(i, Math.min(content.length(), i + 16)));
+
+        sleep(latency / 3);
+        long gap = chunks.isEmpty() ? 0 : (latency - latency / 3) / chunks.size();
+        try (OutputStream out = ex.getResponseBody()) {
+            for (String c : chunks) {
+                Map<String, Object> chunk = Map.of(
+                    "object", "chat.completion.chunk",
+                    "model", model,
+                    "choices", List.of(Map.of("index", 0, "delta", Map.of("content", c))));
+                out.write(("data: " + MAPPER.writeValueAsString(chunk) + "\n\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                sleep(gap);
+            }
+            out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private String answer(String prompt) throws IOException {
+        Matcher outline = OUTLINE_COUNT.matcher(prompt);
+        if (outline.find()) return outlineJson(Integer.parseInt(outline.group(1)), true);
+
+        Matcher followUp = FOLLOWUP_COUNT.matcher(prompt);
+        if (followUp.find()) return outlineJson(Integer.parseInt(followUp.group(1)), false);
+
+        if (prompt.contains("TẠO NỘI DUNG CHO SLIDE")) {
+            if (prompt.contains("Loại: IMAGE")) return "<div class=\"content\"></div>";
+            StringBuilder sb = new StringBuilder("<div class=\"content\"><ul>");
+            for (int i = 0; i < 5; i++) sb.append("<li>Ý chính số ").append(i + 1).append(" ngắn gọn dễ nhớ</li>");
+            return sb.append("</ul></div>").toString();
+        }
+        if (prompt.contains("từ khóa")) return "lop hoc hien dai";
+        return "education, technology";
+    }
+
+    private String outlineJson(int count, boolean full) throws IOException {
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        int offset = r.nextInt(TITLES.size());
+        List<Map<String, String>> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String type;
+            if (full && i == 0) type = "TITLE";
+            else if (full && i == count - 1) type = "CTA";
+            else type = i % 3 == 2 ? "IMAGE" : "BULLET";
+            items.add(Map.of("title", TITLES.get((offset + i) % TITLES.size()), "type", type));
+        }
+        String json = MAPPER.writeValueAsString(items);
+        if (full && r.nextDouble() < config.truncatedOutlineRate()) {
+            truncated.incrementAndGet();
+            return json.substring(0, json.length() * 2 / 3);
+        }
+        return json;
+    }
+
+    // ---------- Ảnh ----------
+
+    private void image(HttpExchange ex) throws IOException {
+        try (ex) {
+            imageCalls.incrementAndGet();
+            sleep(config.imageLatency().sampleMs());
+            ex.getResponseHeaders().set("Content-Type", "image/png");
+            ex.sendResponseHeaders(200, png.length);
+            ex.getResponseBody().write(png);
+        }
+    }
+
+    private void search(HttpExchange ex) throws IOException {
+        try (ex) {
+            searchCalls.incrementAndGet();
+            sleep(config.imageLatency().sampleMs());
+            List<Map<String, String>> items = new ArrayList<>();
+            for (int i = 1; i <= 5; i++) items.add(Map.of("link", baseUrl() + "/img/" + i + ".png"));
+            sendJson(ex, 200, MAPPER.writeValueAsString(Map.of("items", items)));
+        }
+    }
+
+    private static byte[] renderPng() throws IOException {
+        BufferedImage img = new BufferedImage(600, 800, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+        for (int y = 0; y < 800; y += 40) {
+            g.setColor(new Color(40 + y / 8, 90, 160 - y / 10));
+            g.fillRect(0, y, 600, 40);
+        }
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(img, "png", out);
+        return out.toByteArray();
+    }
+
+    private static void sendJson(HttpExchange ex, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json");
+        ex.sendResponseHeaders(status, bytes.length);
+        ex.getResponseBody().write(bytes);
+    }
+
+    private static void sleep(long ms) {
+        if (ms <= 0) return;
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Chạy riêng để trỏ 1 instance app bất kỳ vào: {@code StubUpstreamServer [port]}. */
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8089;
+        StubUpstreamServer stub = new StubUpstreamServer(port, Config.defaults());
+        System.out.println("Stub upstream: " + stub.baseUrl()
+            + " (openai.base-url, image.unsplash-base-url, google.cse.base-url)");
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,85 @@
+// src/test/java/com/bkap/aislide/outline/LenientOutlineParserTest.java
+package com.bkap.aislide.outline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.bkap.aislide.dto.SlideItem;
+
+class LenientOutlineParserTest {
+
+    static Stream<Arguments> cases() {
+        return Stream.of(
+            Arguments.of("mảng hợp lệ",
+                "[{\"title\":\"A\",\"type\":\"TITLE\"},{\"title\":\"B\",\"type\":\"BULLET\"}]",
+                List.of("A", "B"), 0),
+            Arguments.of("mảng bị cắt cụt",
+                "[{\"title\":\"A\",\"type\":\"TITLE\"},{\"title\":\"B\",\"type\":\"BUL",
+                List.of("A"), 1),
+            Arguments.of("object bọc ngoài bị cắt cụt",
+                "{\"slides\":[{\"title\":\"A\"},{\"title\":\"B",
+                List.of("A"), 1),
+            Arguments.of("object bọc ngoài",
+                "{\"slides\":[{\"title\":\"A\"},{\"title\":\"B\"}]}",
+                List.of("A", "B"), 0),
+            Arguments.of("rác phía sau",
+                "[{\"title\":\"A\"}] Chúc bạn thuyết trình tốt! }]",
+                List.of("A"), 0),
+            Arguments.of("code fence",
+                "```json\n[{\"title\":\"A\"},\n{\"title\":\"B\"}]\n```",
+                List.of("A", "B"), 0),
+            Arguments.of("title sai kiểu",
+                "[{\"title\":123},{\"title\":[\"x\"]},{\"title\":null},{\"title\":\"C\"}]",
+                List.of("C"), 3),
+            Arguments.of("title là object",
+                "[{\"title\":{\"text\":\"A\"}},{\"title\":\"B\"}]",
+                List.of("B"), 1),
+            Arguments.of("thiếu hoặc rỗng title",
+                "[{\"type\":\"BULLET\"},{\"title\":\"  \"},{\"title\":\"B\"}]",
+                List.of("B"), 2),
+            Arguments.of("object sai cú pháp giữa mảng",
+                "[{\"title\":\"A\" \"type\":\"BULLET\"},{\"title\":\"B\"}]",
+                List.of("B"), 1),
+            Arguments.of("ngoặc và nháy trong chuỗi",
+                "[{\"title\":\"Dùng {x} và \\\"y\\\"\"}]",
+                List.of("Dùng {x} và \"y\""), 0),
+            Arguments.of("nháy đơn, key không nháy, dấu phẩy thừa",
+                "[{title:'A', type:'IMAGE',},]",
+                List.of("A"), 0),
+            Arguments.of("không có JSON", "Xin lỗi, tôi không thể giúp.", List.of(), 0),
+            Arguments.of("rỗng", "", List.of(), 0),
+            Arguments.of("null", null, List.of(), 0)
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("cases")
+    void parse(String name, String raw, List<String> titles, int rejected) {
+        LenientOutlineParser.Result result = LenientOutlineParser.parse(raw);
+        assertEquals(titles, result.items().stream().map(SlideItem::title).toList());
+        assertEquals(rejected, result.rejected());
+    }
+
+    static Stream<Arguments> types() {
+        return Stream.of(
+            Arguments.of("{\"title\":\"A\",\"type\":\"IMAGE\"}", "IMAGE"),
+            Arguments.of("{\"title\":\"A\"}", null),
+            Arguments.of("{\"title\":\"A\",\"type\":3}", null),
+            Arguments.of("{\"title\":\"A\",\"type\":null}", null)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("types")
+    void typeIsKeptOnlyWhenTextual(String raw, String type) {
+        List<SlideItem> items = LenientOutlineParser.parse(raw).items();
+        assertEquals(1, items.size());
+        assertEquals(type, items.get(0).type());
+    }
+}
@@ -0,0 +1,112 @@
+// src/test/java/com/bkap/aislide/outline/OutlineEngineTest.java
+package com.bkap.aislide.outline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.bkap.aislide.dto.SlideItem;
+import com.bkap.aislide.util.TextNormalizer;
+
+class OutlineEngineTest {
+
+    private OutlineEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new OutlineEngine();
+        ReflectionTestUtils.setField(engine, "similarityThreshold", 0.6);
+        ReflectionTestUtils.setField(engine, "maxImages", 4);
+        ReflectionTestUtils.setField(engine, "maxTitleLength", 45);
+    }
+
+    private static SlideItem s(String title, String type) {
+        return new SlideItem(title, type);
+    }
+
+    /** Mỗi dòng: số slide, các slide LLM trả về, outline mong đợi dạng "TYPE|title". */
+    static Stream<Arguments> drafts() {
+        return Stream.of(
+            Arguments.of("bỏ tiền tố đánh số", 3,
+                List.of(s("1. Giới thiệu AI", "TITLE"), s("Slide 2: Ứng dụng thực tế", "BULLET"), s("#3 - Hành động ngay", "CTA")),
+                List.of("TITLE|Giới thiệu AI", "BULLET|Ứng dụng thực tế", "CTA|Hành động ngay")),
+            Arguments.of("tiêu đề trùng gần đúng", 4,
+                List.of(s("Lợi ích của AI", "TITLE"), s("LỢI ÍCH CỦA AI", "BULLET"), s("Loi ich cua AI", "BULLET"),
+                    s("Lợi ích của AI trong giáo dục", "BULLET"), s("Thách thức", "BULLET"), s("Kết luận", "CTA")),
+                // Jaccard 4/7 < 0.6 → vẫn nhận
+                List.of("TITLE|Lợi ích của AI", "BULLET|Lợi ích của AI trong giáo dục", "BULLET|Thách thức", "CTA|Kết luận")),
+            Arguments.of("type lạ và TITLE thứ hai thành BULLET", 4,
+                List.of(s("Mở đầu", "title"), s("Biểu đồ doanh thu", "CHART"), s("Tiêu đề phụ", "TITLE"), s("Cảm ơn", null)),
+                List.of("TITLE|Mở đầu", "BULLET|Biểu đồ doanh thu", "BULLET|Tiêu đề phụ", "CTA|Bắt Đầu Ngay!")),
+            Arguments.of("quá quota ảnh", 7,
+                List.of(s("Du lịch Hà Nội", "TITLE"), s("Toàn cảnh thành phố", "IMAGE"), s("Bản đồ khu vực", "IMAGE"),
+                    s("Biểu tượng văn hóa", "IMAGE"), s("Ẩm thực đường phố", "IMAGE"), s("Lễ hội mùa xuân", "IMAGE"), s("Lên đường", "CTA")),
+                List.of("TITLE|Du lịch Hà Nội", "IMAGE|Toàn cảnh thành phố", "IMAGE|Bản đồ khu vực", "IMAGE|Biểu tượng văn hóa",
+                    "IMAGE|Ẩm thực đường phố", "BULLET|Lễ hội mùa xuân", "CTA|Lên đường")),
+            Arguments.of("thân bài đủ thì bỏ phần dư", 3,
+                List.of(s("Chủ đề", "TITLE"), s("Ý thứ nhất", "BULLET"), s("Điểm khác", "BULLET"), s("Hết", "CTA")),
+                List.of("TITLE|Chủ đề", "BULLET|Ý thứ nhất", "CTA|Hết")),
+            Arguments.of("cắt tiêu đề dài theo ranh giới từ", 3,
+                List.of(s("Chiến lược chuyển đổi số toàn diện cho doanh nghiệp vừa và nhỏ", "TITLE"),
+                    s("Lộ trình", "BULLET"), s("Liên hệ", "CTA")),
+                List.of("TITLE|Chiến lược chuyển đổi số toàn diện cho doanh", "BULLET|Lộ trình", "CTA|Liên hệ")),
+            Arguments.of("tiêu đề rỗng sau khi chuẩn hóa", 3,
+                List.of(s("1.", "TITLE"), s("  ", "BULLET"), s("Chủ đề", "TITLE"), s("Nội dung", "BULLET"), s("Kết", "CTA")),
+                List.of("TITLE|Chủ đề", "BULLET|Nội dung", "CTA|Kết"))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("drafts")
+    void draftNormalizesOutline(String name, int count, List<SlideItem> offered, List<String> expected) {
+        OutlineEngine.Draft draft = engine.newDraft("Chủ đề", count);
+        offered.forEach(draft::offer);
+        List<String> actual = draft.finish().stream().map(i -> i.type() + "|" + i.title()).toList();
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void templateFillsMissingBodyWithoutDuplicates() {
+        OutlineEngine.Draft draft = engine.newDraft("Năng lượng tái tạo", 8);
+        draft.offer(s("Tổng quan chủ đề", "BULLET"));
+
+        List<SlideItem> outline = draft.finish();
+        assertEquals(8, outline.size());
+        assertEquals(s("Năng lượng tái tạo", "TITLE"), outline.get(0));
+        assertEquals(s("Bắt Đầu Ngay!", "CTA"), outline.get(7));
+        Set<String> folded = new HashSet<>();
+        for (SlideItem i : outline) assertTrue(folded.add(TextNormalizer.foldAccents(i.title())), i.title());
+        // 1 slide từ LLM, 5 slide còn lại lấy từ outline mẫu ("Tổng Quan Chủ Đề" bị chặn vì trùng)
+        assertEquals(5L, engine.stats().get("templateSlidesFilled"));
+    }
+
+    @Test
+    void templateDoesNotRepeatTitleBuiltFromTopic() {
+        List<SlideItem> outline = engine.newDraft("Tổng quan chủ đề", 4).finish();
+        // "Tổng Quan Chủ Đề" của outline mẫu trùng tiêu đề dựng từ chủ đề → bị bỏ
+        assertEquals(List.of(s("Tổng quan chủ đề", "TITLE"), s("Khái Niệm Cốt Lõi", "BULLET"),
+            s("Hình Ảnh Minh Họa", "IMAGE"), s("Bắt Đầu Ngay!", "CTA")), outline);
+        assertEquals(2L, engine.stats().get("templateSlidesFilled"));
+    }
+
+    @Test
+    void templateOutlineHasRequestedShape() {
+        List<SlideItem> outline = engine.templateOutline("Chủ đề bất kỳ", 20);
+        assertEquals(20, outline.size());
+        assertEquals("TITLE", outline.get(0).type());
+        assertEquals("CTA", outline.get(19).type());
+        assertEquals(3, outline.stream().filter(i -> "IMAGE".equals(i.type())).count());
+        assertEquals(1L, engine.stats().get("fullTemplateFallbacks"));
+    }
+}
@@ -0,0 +1,88 @@
+// src/test/java/com/bkap/aislide/quota/TokenBucketTest.java
+package com.bkap.aislide.quota;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+    private final AtomicLong nanos = new AtomicLong(1_000_000_000L);
+
+    private TokenBucket bucket(double capacity, double perSecond) {
+        return new TokenBucket(capacity, perSecond, nanos::get);
+    }
+
+    private void advanceSeconds(double seconds) {
+        nanos.addAndGet((long) (seconds * TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    @Test
+    void startsFullAndEmptiesOnTake() {
+        TokenBucket b = bucket(5, 10 / 60.0);
+        assertTrue(b.has(5));
+        b.take(5);
+        assertFalse(b.has(1));
+        // 10 request/phút → 1 token mỗi 6 giây
+        assertEquals(6, b.secondsUntil(1));
+    }
+
+    @Test
+    void refillsLinearlyWithElapsedTime() {
+        TokenBucket b = bucket(10, 1);
+        b.take(10);
+        advanceSeconds(3);
+        b.refill();
+        assertTrue(b.has(3));
+        assertFalse(b.has(4));
+        assertEquals(1, b.secondsUntil(4));
+    }
+
+    @Test
+    void refillIsCappedAtCapacity() {
+        TokenBucket b = bucket(5, 1);
+        b.take(2);
+        advanceSeconds(3600);
+        b.refill();
+        b.take(5);
+        assertFalse(b.has(0.5));
+    }
+
+    @Test
+    void oversizedRequestNeedsFullBucketThenLeavesDebt() {
+        TokenBucket b = bucket(60, 2);
+        assertTrue(b.has(100));
+        b.take(100);
+        // -40 token: cần 41 token mới đủ 1 → 20.5 giây, làm tròn lên
+        assertFalse(b.has(1));
+        assertEquals(21, b.secondsUntil(1));
+
+        advanceSeconds(20);
+        b.refill();
+        assertFalse(b.has(1));
+        advanceSeconds(0.5);
+        b.refill();
+        assertTrue(b.has(1));
+    }
+
+    @Test
+    void oversizedRequestWaitsOnlyForFullBucket() {
+        TokenBucket b = bucket(60, 2);
+        b.take(1);
+        advanceSeconds(0.25);
+        b.refill();
+        assertFalse(b.has(100));
+        assertEquals(1, b.secondsUntil(100));
+    }
+
+    @Test
+    void noWaitWhenTokensAvailable() {
+        TokenBucket b = bucket(5, 1);
+        assertEquals(0, b.secondsUntil(3));
+    }
+}
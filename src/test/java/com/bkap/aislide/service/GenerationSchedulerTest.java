@@ -0,0 +1,138 @@
+// src/test/java/com/bkap/aislide/service/GenerationSchedulerTest.java
+package com.bkap.aislide.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.bkap.aislide.dto.QueueTicket;
+import com.bkap.aislide.dto.SlideContent;
+import com.bkap.aislide.entity.SlideGeneration;
+
+class GenerationSchedulerTest {
+
+    // Executor thủ công: job chỉ chạy khi drain(), trên chính thread test → hàng đợi kịp dồn lại trước khi chạy
+    private final Deque<Runnable> pending = new ArrayDeque<>();
+    private final List<String> runOrder = new ArrayList<>();
+    private GenerationScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        SlideGenerationTask task = mock(SlideGenerationTask.class);
+        doAnswer(inv -> runOrder.add(inv.getArgument(0))).when(task).generate(anyString());
+        doAnswer(inv -> runOrder.add(inv.getArgument(0))).when(task).renderReady(anyString(), any());
+        scheduler = new GenerationScheduler(task, pending::add);
+        configure(1, 1);
+    }
+
+    private void configure(int workers, int perBatchLimit) {
+        ReflectionTestUtils.setField(scheduler, "workers", workers);
+        ReflectionTestUtils.setField(scheduler, "perBatchLimit", perBatchLimit);
+        ReflectionTestUtils.setField(scheduler, "msPerSlide", 4000.0);
+    }
+
+    private void drain() {
+        while (!pending.isEmpty()) pending.poll().run();
+    }
+
+    private static SlideGeneration slide(String taskId, int count, String batchId) {
+        SlideGeneration s = new SlideGeneration();
+        s.setTaskId(taskId);
+        s.setSlideCount(count);
+        s.setBatchId(batchId);
+        return s;
+    }
+
+    @Test
+    void floodingClientIsInterleavedWithOthers() {
+        QueueTicket last = null;
+        for (int i = 1; i <= 5; i++) last = scheduler.submit("flood", 1, slide("f" + i, 5, null));
+        QueueTicket b = scheduler.submit("b", 1, slide("b1", 5, null));
+        scheduler.submit("c", 1, slide("c1", 5, null));
+
+        // f1 đang chạy; f2..f4 (15 slide) đứng trước f5
+        assertEquals(4, last.position());
+        assertEquals(60_000, last.estimatedWaitMs());
+        // b1 có nhãn S = 0, xếp trước f2 (S = 5) dù gửi sau
+        assertEquals(1, b.position());
+
+        drain();
+        assertEquals(List.of("f1", "b1", "c1", "f2", "f3", "f4", "f5"), runOrder);
+        assertTrue(scheduler.isIdle());
+    }
+
+    @Test
+    void clientWeightSetsShareOfSlots() {
+        scheduler.submit("blocker", 1, slide("x", 1, null));
+        for (int i = 1; i <= 4; i++) scheduler.submit("heavy", 2, slide("a" + i, 2, null));
+        for (int i = 1; i <= 4; i++) scheduler.submit("light", 1, slide("b" + i, 2, null));
+
+        drain();
+        // Trọng số 2 → nhãn a: 0,1,2,3; b: 0,2,4,6
+        assertEquals(List.of("x", "a1", "b1", "a2", "a3", "b2", "a4", "b3", "b4"), runOrder);
+    }
+
+    @Test
+    void batchUsesAllFreeSlotsWithoutContention() {
+        configure(3, 1);
+        List<SlideGeneration> batch = IntStream.rangeClosed(1, 3).mapToObj(i -> slide("k" + i, 1, "batch")).toList();
+        scheduler.submitBatch("k", 1, batch);
+
+        assertEquals(3, pending.size());
+        assertTrue(scheduler.ticket("k3").isEmpty());
+        drain();
+        assertTrue(scheduler.isIdle());
+    }
+
+    @Test
+    void batchLimitYieldsSlotUnderContention() {
+        configure(2, 1);
+        scheduler.submit("l", 1, slide("l1", 10, null));
+        List<SlideGeneration> batch = IntStream.rangeClosed(1, 3).mapToObj(i -> slide("k" + i, 1, "batch")).toList();
+        scheduler.submitBatch("k", 1, batch);
+        scheduler.submit("l", 1, slide("l2", 10, null));
+
+        drain();
+        // k2 có nhãn S = 1 < 10 của l2, nhưng k1 đang giữ slot duy nhất của batch khi l1 xong
+        assertEquals(List.of("l1", "k1", "l2", "k2", "k3"), runOrder);
+    }
+
+    @Test
+    void readyDeckGoesThroughQueue() {
+        scheduler.submit("a", 1, slide("a1", 5, null));
+        SlideContent s = new SlideContent(0, "Tiêu đề", "TITLE", "<p>x</p>", null, false);
+        QueueTicket ticket = scheduler.submitReady("b", 1, slide("r1", 1, null), List.of(s));
+
+        assertEquals(1, ticket.position());
+        assertEquals(1, pending.size());
+        assertTrue(scheduler.ticket("r1").isPresent());
+        drain();
+        assertEquals(List.of("a1", "r1"), runOrder);
+    }
+
+    @Test
+    void backgroundRunsOnlyWhenNoUserJobWaits() {
+        scheduler.submit("a", 1, slide("a1", 5, null));
+        scheduler.submitBackground("pregen", 0.1, "p1", 5, () -> runOrder.add("p1"));
+        QueueTicket b = scheduler.submit("b", 1, slide("b1", 5, null));
+
+        // p1 gửi trước, cùng nhãn S = 0, nhưng không tính vào vị trí của request thật
+        assertEquals(1, b.position());
+        drain();
+        assertEquals(List.of("a1", "b1", "p1"), runOrder);
+        assertTrue(scheduler.isIdle());
+    }
+}
@@ -0,0 +1,127 @@
+// src/test/java/com/bkap/aislide/similarity/ContentReuseTest.java
+package com.bkap.aislide.similarity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.bkap.aislide.dto.SlideItem;
+
+class ContentReuseTest {
+
+    private static final List<SlideItem> OUTLINE = List.of(
+        new SlideItem("AI trong giáo dục", "TITLE"),
+        new SlideItem("Lợi ích của AI", "BULLET"),
+        new SlideItem("Bắt đầu ngay", "CTA"));
+
+    private ContentReuse reuse;
+
+    @BeforeEach
+    void setUp() {
+        reuse = create(true);
+    }
+
+    private static ContentReuse create(boolean enabled) {
+        ContentReuse r = new ContentReuse();
+        ReflectionTestUtils.setField(r, "enabled", enabled);
+        ReflectionTestUtils.setField(r, "outlineThreshold", 0.75);
+        ReflectionTestUtils.setField(r, "seedThreshold", 0.5);
+        ReflectionTestUtils.setField(r, "slideThreshold", 0.8);
+        ReflectionTestUtils.setField(r, "seedFraction", 0.5);
+        ReflectionTestUtils.setField(r, "maxEntries", 100);
+        ReflectionTestUtils.setField(r, "bands", 32);
+        ReflectionTestUtils.setField(r, "rows", 4);
+        r.init();
+        return r;
+    }
+
+    @Test
+    void sameTopicReusesOutline() {
+        reuse.rememberOutline("AI trong giáo dục", OUTLINE);
+
+        ContentReuse.OutlineMatch match = reuse.findOutline("ai trong giao duc").orElseThrow();
+        assertTrue(match.reusable());
+        assertEquals(1.0, match.similarity(), 1e-9);
+        assertEquals(OUTLINE, match.items());
+    }
+
+    @Test
+    void nearDuplicateTopicOnlySeedsOutline() {
+        reuse.rememberOutline("AI trong giáo dục", OUTLINE);
+
+        // Jaccard 7/11 ≈ 0.64: trên seed-threshold, dưới outline-threshold
+        ContentReuse.OutlineMatch match = reuse.findOutline("Ứng dụng AI trong giáo dục").orElseThrow();
+        assertFalse(match.reusable());
+        assertEquals(7 / 11.0, match.similarity(), 1e-9);
+    }
+
+    @Test
+    void unrelatedTopicFindsNothing() {
+        reuse.rememberOutline("AI trong giáo dục", OUTLINE);
+        reuse.rememberSlideBody("AI trong giáo dục", "Lợi ích của AI", "BULLET", "<ul><li>x</li></ul>");
+
+        assertTrue(reuse.findOutline("Lịch sử đế chế La Mã").isEmpty());
+        assertTrue(reuse.findSlideBody("Lịch sử đế chế La Mã", "Lợi ích của AI", "BULLET").isEmpty());
+    }
+
+    @Test
+    void slideBodyNeedsSimilarTitleSameTypeAndSimilarTopic() {
+        reuse.rememberSlideBody("AI trong giáo dục", "Lợi ích của AI", "BULLET", "<ul><li>x</li></ul>");
+
+        assertEquals("<ul><li>x</li></ul>",
+            reuse.findSlideBody("Ứng dụng AI trong giáo dục", "Lợi ích của AI", "BULLET").orElseThrow());
+        assertTrue(reuse.findSlideBody("Ứng dụng AI trong giáo dục", "Lợi ích của AI", "IMAGE").isEmpty());
+        // tiêu đề giống 7/13 < 0.8
+        assertTrue(reuse.findSlideBody("AI trong giáo dục", "Lợi ích của AI trong lớp học", "BULLET").isEmpty());
+        // tiêu đề trùng nhưng chủ đề khác hẳn
+        assertTrue(reuse.findSlideBody("Biến đổi khí hậu", "Lợi ích của AI", "BULLET").isEmpty());
+    }
+
+    @Test
+    void blankBodyIsNotRemembered() {
+        reuse.rememberSlideBody("AI trong giáo dục", "Lợi ích của AI", "BULLET", null);
+        reuse.rememberSlideBody("AI trong giáo dục", "Lợi ích của AI", "BULLET", "  ");
+
+        assertTrue(reuse.findSlideBody("AI trong giáo dục", "Lợi ích của AI", "BULLET").isEmpty());
+        assertEquals(0, reuse.stats().get("indexedSlides"));
+    }
+
+    @Test
+    void disabledReuseNeverMatches() {
+        ContentReuse off = create(false);
+        off.rememberOutline("AI trong giáo dục", OUTLINE);
+        off.rememberSlideBody("AI trong giáo dục", "Lợi ích của AI", "BULLET", "<p>x</p>");
+
+        assertTrue(off.findOutline("AI trong giáo dục").isEmpty());
+        assertTrue(off.findSlideBody("AI trong giáo dục", "Lợi ích của AI", "BULLET").isEmpty());
+        Map<String, Object> stats = off.stats();
+        assertEquals(false, stats.get("enabled"));
+        assertEquals(0L, stats.get("outlineLookups"));
+        assertEquals(0, stats.get("indexedOutlines"));
+    }
+
+    @Test
+    void statsCountLookupsAndHits() {
+        reuse.rememberSlideBody("AI trong giáo dục", "Lợi ích của AI", "BULLET", "<p>x</p>");
+        reuse.findSlideBody("AI trong giáo dục", "Lợi ích của AI", "BULLET");
+        reuse.findSlideBody("AI trong giáo dục", "Thách thức", "BULLET");
+
+        Map<String, Object> stats = reuse.stats();
+        assertEquals(2L, stats.get("slideLookups"));
+        assertEquals(1L, stats.get("slidesReused"));
+        assertEquals(0.5, (double) stats.get("slideReuseRatio"), 1e-9);
+    }
+
+    @Test
+    void seedLimitTakesFractionOfBody() {
+        assertEquals(4, reuse.seedLimit(10));
+        assertEquals(0, reuse.seedLimit(2));
+    }
+}
@@ -0,0 +1,132 @@
+// src/test/java/com/bkap/aislide/similarity/MinHashIndexTest.java
+package com.bkap.aislide.similarity;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class MinHashIndexTest {
+
+    private static final double EPS = 1e-4;
+
+    @Test
+    void shinglesIgnoreAccentsCaseAndPunctuation() {
+        long[] a = MinHashIndex.shingles("AI trong giáo dục");
+        // 4 token + 3 cặp liền kề
+        assertEquals(7, a.length);
+        assertArrayEquals(a, MinHashIndex.shingles("ai  TRONG giao duc!"));
+        assertEquals(0, MinHashIndex.shingles("  ?! ").length);
+    }
+
+    @Test
+    void jaccardEdgeCases() {
+        long[] a = MinHashIndex.shingles("năng lượng mặt trời");
+        assertEquals(1.0, MinHashIndex.jaccard(a, a), EPS);
+        assertEquals(0.0, MinHashIndex.jaccard(a, MinHashIndex.shingles("lịch sử La Mã")), EPS);
+        assertEquals(0.0, MinHashIndex.jaccard(new long[0], new long[0]), EPS);
+    }
+
+    /** Cặp chủ đề và Jaccard chính xác mong đợi (tính tay trên token + cặp token). */
+    static Stream<Arguments> pairs() {
+        return Stream.of(
+            Arguments.of("AI trong giáo dục", "Ứng dụng AI trong giáo dục", 7 / 11.0),
+            Arguments.of("Biến đổi khí hậu toàn cầu", "Tác động của biến đổi khí hậu toàn cầu", 11 / 17.0),
+            Arguments.of("Lợi ích của AI", "Lợi ích của AI trong lớp học", 7 / 13.0),
+            Arguments.of("An toàn thông tin cho người mới", "An toàn thông tin cho người mới bắt đầu", 13 / 17.0),
+            Arguments.of("Lịch sử đế chế La Mã", "AI trong giáo dục", 0.0),
+            Arguments.of("Dinh dưỡng cho trẻ em", "Chiến lược marketing số", 0.0)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("pairs")
+    void queryReturnsExactJaccardForIndexedTopic(String stored, String query, double expected) {
+        assertEquals(expected, MinHashIndex.jaccard(MinHashIndex.shingles(stored), MinHashIndex.shingles(query)), EPS);
+
+        MinHashIndex<String> index = new MinHashIndex<>(32, 4, 100);
+        index.put(stored, stored);
+        List<MinHashIndex.Match<String>> matches = index.query(query, 0.5);
+        if (expected >= 0.5) {
+            assertEquals(1, matches.size());
+            assertEquals(stored, matches.get(0).value());
+            assertEquals(expected, matches.get(0).similarity(), EPS);
+        } else {
+            assertTrue(matches.isEmpty());
+        }
+    }
+
+    @Test
+    void queryFiltersByThresholdAndSortsBySimilarity() {
+        MinHashIndex<String> index = new MinHashIndex<>(32, 4, 100);
+        index.put("AI trong giáo dục", "a");
+        index.put("Ứng dụng AI trong giáo dục", "b");
+        index.put("Lịch sử đế chế La Mã", "c");
+
+        List<MinHashIndex.Match<String>> matches = index.query("AI trong giáo dục", 0.5);
+        assertEquals(List.of("a", "b"), matches.stream().map(MinHashIndex.Match::value).toList());
+        assertEquals(List.of("a"), index.query("AI trong giáo dục", 0.7).stream().map(MinHashIndex.Match::value).toList());
+    }
+
+    /**
+     * LSH 32 band × 4 hàng: xác suất thành ứng viên = 1 - (1 - J^4)^32
+     * (≈ 99% với J = 0.6, ≈ 87% với J = 0.5, ≈ 5% với J = 0.2).
+     * Sinh cặp bằng Random cố định seed nên kết quả tất định.
+     */
+    @Test
+    void lshRecallFollowsJaccard() {
+        Random random = new Random(42);
+        int high = 0, highHit = 0, mid = 0, midHit = 0, low = 0, lowHit = 0;
+        for (int t = 0; t < 2000; t++) {
+            List<String> base = new ArrayList<>();
+            for (int i = 0; i < 8; i++) base.add("w" + random.nextInt(100_000));
+            List<String> variant = new ArrayList<>(base);
+            int changes = random.nextInt(5);
+            for (int i = 0; i < changes; i++) variant.set(random.nextInt(8), "x" + random.nextInt(100_000));
+
+            String a = String.join(" ", base), b = String.join(" ", variant);
+            double j = MinHashIndex.jaccard(MinHashIndex.shingles(a), MinHashIndex.shingles(b));
+            MinHashIndex<String> index = new MinHashIndex<>(32, 4, 10);
+            index.put(a, a);
+            boolean candidate = !index.query(b, 0).isEmpty();
+            if (j >= 0.6) { high++; if (candidate) highHit++; }
+            else if (j >= 0.5) { mid++; if (candidate) midHit++; }
+            else if (j < 0.3) { low++; if (candidate) lowHit++; }
+        }
+        assertTrue(high > 0 && mid > 0 && low > 0);
+        assertEquals(high, highHit);
+        assertTrue(midHit >= 0.8 * mid, midHit + "/" + mid);
+        assertTrue(lowHit <= 0.1 * low, lowHit + "/" + low);
+    }
+
+    @Test
+    void putReplacesIdenticalTextAndEvictsOldest() {
+        MinHashIndex<String> index = new MinHashIndex<>(32, 4, 2);
+        index.put("AI trong giáo dục", "v1");
+        index.put("ai trong giao duc", "v2");
+        assertEquals(1, index.size());
+        assertEquals("v2", index.query("AI trong giáo dục", 1.0).get(0).value());
+
+        index.put("Biến đổi khí hậu", "x");
+        index.put("Lịch sử La Mã", "y");
+        assertEquals(2, index.size());
+        assertTrue(index.query("AI trong giáo dục", 0.5).isEmpty());
+        assertEquals(1, index.query("Lịch sử La Mã", 0.5).size());
+    }
+
+    @Test
+    void rejectsInvalidShape() {
+        assertThrows(IllegalArgumentException.class, () -> new MinHashIndex<String>(0, 4, 10));
+        assertThrows(IllegalArgumentException.class, () -> new MinHashIndex<String>(32, 4, 0));
+    }
+}